@@ -2,8 +2,10 @@ package com.trick_manager.Trick_API;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class TrickApiApplication {
 
 	public static void main(String[] args) {
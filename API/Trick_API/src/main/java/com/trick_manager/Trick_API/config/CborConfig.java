@@ -0,0 +1,21 @@
+package com.trick_manager.Trick_API.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * CBOR responses for clients sending Accept: application/cbor. JSON stays the default,
+ * the converter is registered after the JSON one.
+ */
+@Configuration
+public class CborConfig {
+
+    // Built from Boot's builder so dates, modules and inclusion rules match the JSON output
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
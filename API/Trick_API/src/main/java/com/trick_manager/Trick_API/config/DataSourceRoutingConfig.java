@@ -0,0 +1,87 @@
+package com.trick_manager.Trick_API.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to a replica when one is configured (app.datasource.replica.url),
+ * otherwise the primary pool from spring.datasource.* is used directly.
+ * Decided when the bean is created rather than with @ConditionalOnProperty: the Docker image is built
+ * with Spring AOT, which evaluates conditions at build time, where no replica is configured.
+ */
+@Configuration
+public class DataSourceRoutingConfig implements DisposableBean {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Not a bean, it only exists with a replica
+    private HikariDataSource replicaDataSource;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    // Lazy proxy: the physical connection is only fetched once the transaction's read-only flag is set
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+                                 DataSourceProperties primaryProperties,
+                                 @Value("${app.datasource.replica.url:}") String url,
+                                 @Value("${app.datasource.replica.username:}") String username,
+                                 @Value("${app.datasource.replica.password:}") String password,
+                                 @Value("${app.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs) {
+        if (url.isEmpty()) return primaryDataSource;
+
+        replicaDataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username.isEmpty() ? primaryProperties.getUsername() : username)
+                .password(password.isEmpty() ? primaryProperties.getPassword() : password)
+                .build();
+        Binder.get(environment).bind("app.datasource.replica.hikari", Bindable.ofInstance(replicaDataSource));
+        replicaDataSource.setPoolName("replica");
+        replicaDataSource.setReadOnly(true);
+        // Boot only instruments pools that are beans
+        replicaDataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(stickyWindowMs);
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, primaryDataSource,
+                ReplicaRoutingDataSource.REPLICA, replicaDataSource
+        ));
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Override
+    public void destroy() {
+        if (replicaDataSource != null) replicaDataSource.close();
+    }
+}
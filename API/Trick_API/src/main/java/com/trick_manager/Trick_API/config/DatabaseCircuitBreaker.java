@@ -0,0 +1,175 @@
+package com.trick_manager.Trick_API.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.exception.JDBCConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.net.SocketTimeoutException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+
+/**
+ * Count-based circuit breaker for the database access of HTTP requests (see {@link DatabaseCircuitBreakerAspect}).
+ * Opens when the share of failed or slow statements in the last window-size calls reaches the threshold,
+ * rejects calls for open-ms, then lets a single probe through (half-open) to decide whether to close.
+ * Only connection problems and timeouts count as failures, not business errors like constraint violations.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(DatabaseCircuitBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    @Value("${resilience.db.window-size:20}")
+    private int windowSize;
+
+    @Value("${resilience.db.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${resilience.db.failure-rate-threshold:50}")
+    private int failureRateThreshold;
+
+    @Value("${resilience.db.slow-call-ms:2000}")
+    private long slowCallMs;
+
+    @Value("${resilience.db.open-ms:10000}")
+    private long openMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Ring buffer of the last calls, true = failed or slow
+    private boolean[] window;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    private Counter successCalls;
+    private Counter failedCalls;
+    private Counter rejectedCalls;
+
+    @PostConstruct
+    void init() {
+        window = new boolean[windowSize];
+        Gauge.builder("db.circuit.state", this, b -> b.getState().ordinal())
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+        successCalls = Counter.builder("db.circuit.calls").tag("outcome", "success").register(meterRegistry);
+        failedCalls = Counter.builder("db.circuit.calls").tag("outcome", "failure").register(meterRegistry);
+        rejectedCalls = Counter.builder("db.circuit.calls").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Throws {@link DatabaseUnavailableException} if the call may not go to the database.
+     * Returns true if the call is the half-open probe, which has to be passed to {@link #onResult}.
+     */
+    public synchronized boolean acquirePermission() {
+        if (state == State.OPEN) {
+            long remainingMs = openMs - (System.currentTimeMillis() - openedAt);
+            if (remainingMs > 0) throw reject(remainingMs);
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) throw reject(openMs);
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void onResult(boolean probe, long elapsedMs, Throwable error) {
+        boolean failed = (error != null && isDatabaseFailure(error)) || elapsedMs >= slowCallMs;
+        (failed ? failedCalls : successCalls).increment();
+
+        if (probe) {
+            probeInFlight = false;
+            if (failed) {
+                open();
+            } else {
+                resetWindow();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (state != State.CLOSED) return;
+
+        if (recorded == windowSize) {
+            if (window[position]) failures--;
+        } else {
+            recorded++;
+        }
+        window[position] = failed;
+        if (failed) failures++;
+        position = (position + 1) % windowSize;
+
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            log.warn("Database circuit breaker opens, {} of the last {} calls failed or took longer than {} ms",
+                    failures, recorded, slowCallMs);
+            open();
+        }
+    }
+
+    public static boolean isDatabaseFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof DatabaseUnavailableException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof TransactionTimedOutException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof jakarta.persistence.QueryTimeoutException
+                    || t instanceof JDBCConnectionException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLTimeoutException
+                    || t instanceof SocketTimeoutException) {
+                return true;
+            }
+            if (t.getCause() == t) break;
+        }
+        return false;
+    }
+
+    private DatabaseUnavailableException reject(long retryAfterMs) {
+        rejectedCalls.increment();
+        return new DatabaseUnavailableException(Math.max(1, (retryAfterMs + 999) / 1000));
+    }
+
+    private void open() {
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+        transition(State.OPEN);
+    }
+
+    private void resetWindow() {
+        window = new boolean[windowSize];
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State next) {
+        if (state != next) log.info("Database circuit breaker {} -> {}", state, next);
+        state = next;
+    }
+}
@@ -0,0 +1,79 @@
+package com.trick_manager.Trick_API.config;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+
+// Runs database access of HTTP requests through the circuit breaker. Each repository call is one
+// statement and is counted on its own, so slowness is measured per statement; a long transaction
+// (export stream, replay batch) is not slow as long as its statements are not.
+// Our outermost @Transactional methods ask for permission before the transaction interceptor, so
+// waiting for a pooled connection is guarded too, and only a failure to get one is counted for them.
+// Background work (schedulers, startup backfills, the outbox dispatcher) bypasses the breaker:
+// its bulk statements would otherwise open it for the whole API.
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class DatabaseCircuitBreakerAspect {
+
+    // Inside a repository call (repositories calling each other count once)
+    private static final ThreadLocal<Boolean> INSIDE = ThreadLocal.withInitial(() -> false);
+    // Inside a transaction that already got permission
+    private static final ThreadLocal<Boolean> PERMITTED = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    private DatabaseCircuitBreaker breaker;
+
+    @Around("@annotation(org.springframework.transaction.annotation.Transactional) && within(com.trick_manager.Trick_API..*)")
+    public Object guardTransaction(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (PERMITTED.get() || TransactionSynchronizationManager.isActualTransactionActive() || !servingRequest()) {
+            return joinPoint.proceed();
+        }
+
+        boolean probe = breaker.acquirePermission();
+        PERMITTED.set(true);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            PERMITTED.set(false);
+            // Statement failures were counted by guardStatement, a probe is decided by the whole call
+            if (probe || failure instanceof CannotCreateTransactionException) {
+                breaker.onResult(probe, 0, failure);
+            }
+        }
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object guardStatement(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (INSIDE.get() || !servingRequest()) return joinPoint.proceed();
+
+        boolean probe = !PERMITTED.get() && breaker.acquirePermission();
+        INSIDE.set(true);
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            breaker.onResult(probe, (System.nanoTime() - start) / 1_000_000, null);
+            return result;
+        } catch (Throwable e) {
+            breaker.onResult(probe, (System.nanoTime() - start) / 1_000_000, e);
+            throw e;
+        } finally {
+            INSIDE.set(false);
+        }
+    }
+
+    private static boolean servingRequest() {
+        return RequestContextHolder.getRequestAttributes() != null;
+    }
+}
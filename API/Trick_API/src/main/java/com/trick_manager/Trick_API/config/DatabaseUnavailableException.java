@@ -0,0 +1,18 @@
+package com.trick_manager.Trick_API.config;
+
+// Thrown without touching the database while the circuit breaker is open, mapped to 503
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(long retryAfterSeconds) {
+        super("Database temporarily unavailable");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
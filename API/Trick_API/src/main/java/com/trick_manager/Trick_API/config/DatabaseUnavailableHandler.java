@@ -0,0 +1,30 @@
+package com.trick_manager.Trick_API.config;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Database outages answer with 503 + Retry-After instead of a 500 (writes and reads without a stale result)
+@RestControllerAdvice
+public class DatabaseUnavailableHandler {
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<?> handleOpenCircuit(DatabaseUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    @ExceptionHandler({CannotCreateTransactionException.class, QueryTimeoutException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<?> handleDatabaseFailure(Exception e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(Map.of("error", "Database temporarily unavailable"));
+    }
+}
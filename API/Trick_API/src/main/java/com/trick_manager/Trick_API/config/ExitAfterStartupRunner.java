@@ -0,0 +1,33 @@
+package com.trick_manager.Trick_API.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+// Ends one-off runs such as the "schema" profile once the context is up: the schema update and the
+// session_goals conversion happen during the refresh. A property rather than @Profile, AOT would
+// decide a profile condition at build time.
+@Component
+public class ExitAfterStartupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ExitAfterStartupRunner.class);
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${app.exit-after-startup:false}")
+    private boolean exitAfterStartup;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!exitAfterStartup) return;
+        log.info("Startup finished, exiting (app.exit-after-startup)");
+        System.exit(SpringApplication.exit(context));
+    }
+}
@@ -3,13 +3,22 @@ package com.trick_manager.Trick_API.config;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
+import java.util.HexFormat;
 
 @Component
 public class JwtUtils {
     private final String jwtSecret = "your_very_secret_key_that_is_at_least_32_characters_long_!!";
-    private final int jwtExpirationMs = 86400000; // 24 hours
+    private final int jwtExpirationMs = 900000; // 15 minutes
+    private final long refreshExpirationMs = 30L * 86400000; // 30 days
+
+    private final SecureRandom secureRandom = new SecureRandom();
 
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
@@ -37,4 +46,25 @@ public class JwtUtils {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // Opaque random refresh token, 256 bits of entropy
+    public String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Refresh tokens are random, so a plain SHA-256 is enough (no BCrypt needed)
+    public String hashToken(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public long getRefreshExpirationMs() {
+        return refreshExpirationMs;
+    }
+}
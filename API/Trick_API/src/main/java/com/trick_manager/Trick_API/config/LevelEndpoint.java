@@ -0,0 +1,31 @@
+package com.trick_manager.Trick_API.config;
+
+import com.trick_manager.Trick_API.service.LevelService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Operations only, not exposed over HTTP unless added to management.endpoints.web.exposure.include
+@Component
+@Endpoint(id = "levels")
+public class LevelEndpoint {
+
+    @Autowired
+    private LevelService levelService;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return Map.of("rulesVersion", levelService.getRulesVersion());
+    }
+
+    // Re-evaluates every user whose level was computed with other rules, without waiting for the schedule.
+    // Changed rules take a deployment, reloading them on one instance would make them disagree.
+    @WriteOperation
+    public Map<String, Object> reevaluate() {
+        return Map.of("rulesVersion", levelService.getRulesVersion(), "evaluated", levelService.reevaluateStale());
+    }
+}
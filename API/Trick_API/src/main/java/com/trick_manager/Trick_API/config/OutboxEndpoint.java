@@ -0,0 +1,30 @@
+package com.trick_manager.Trick_API.config;
+
+import com.trick_manager.Trick_API.service.OutboxDispatcher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// Operations only, not exposed over HTTP unless added to management.endpoints.web.exposure.include
+@Component
+@Endpoint(id = "outbox")
+public class OutboxEndpoint {
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @ReadOperation
+    public Map<String, Object> status() {
+        return dispatcher.getStatus();
+    }
+
+    @WriteOperation
+    public Map<String, Object> replay(@Selector String projection) {
+        return Map.of("projection", projection, "replaying", dispatcher.replay(projection));
+    }
+}
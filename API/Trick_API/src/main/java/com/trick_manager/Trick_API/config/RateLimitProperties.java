@@ -0,0 +1,33 @@
+package com.trick_manager.Trick_API.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// rate-limit.* from application.properties, policies are matched in order and the first match wins
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Buckets untouched for this long are full again and can be dropped
+    private long evictionIntervalMs = 60000;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String name;
+        // Path patterns like /api/goals/**
+        private List<String> paths = new ArrayList<>();
+        // Sustained requests per second and client
+        private double ratePerSecond;
+        // Requests a client may send at once after being idle
+        private int burst;
+    }
+}
@@ -0,0 +1,116 @@
+package com.trick_manager.Trick_API.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets per policy and client, kept as one AtomicLong each (GCRA): the bucket stores the
+ * time at which it is full again, a request moves that time forward by one emission interval
+ * and is rejected if it would end up more than burst - 1 intervals ahead of now. Acquiring is
+ * a single CAS, there are no locks.
+ */
+@Component
+public class RateLimiter {
+
+    public static final class Policy {
+        final String name;
+        final List<PathPattern> patterns = new ArrayList<>();
+        final long intervalNanos;
+        final long toleranceNanos;
+        final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        Counter allowed;
+        Counter rejected;
+
+        Policy(RateLimitProperties.Policy config) {
+            this.name = config.getName();
+            config.getPaths().forEach(path -> patterns.add(PathPatternParser.defaultInstance.parse(path)));
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.getRatePerSecond());
+            this.toleranceNanos = intervalNanos * (Math.max(config.getBurst(), 1) - 1);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final List<Policy> policies = new ArrayList<>();
+
+    @PostConstruct
+    void init() {
+        for (RateLimitProperties.Policy config : properties.getPolicies()) {
+            Policy policy = new Policy(config);
+            policy.allowed = Counter.builder("ratelimit.requests").tag("policy", policy.name).tag("outcome", "allowed")
+                    .register(meterRegistry);
+            policy.rejected = Counter.builder("ratelimit.requests").tag("policy", policy.name).tag("outcome", "rejected")
+                    .register(meterRegistry);
+            Gauge.builder("ratelimit.buckets", policy.buckets, ConcurrentHashMap::size).tag("policy", policy.name)
+                    .register(meterRegistry);
+            policies.add(policy);
+        }
+    }
+
+    // First policy with a matching path, null if the path is not limited
+    public Policy policyFor(String path) {
+        if (!properties.isEnabled() || policies.isEmpty()) return null;
+        PathContainer container = PathContainer.parsePath(path);
+        for (Policy policy : policies) {
+            for (PathPattern pattern : policy.patterns) {
+                if (pattern.matches(container)) return policy;
+            }
+        }
+        return null;
+    }
+
+    /** Returns 0 if the request may proceed, otherwise the nanoseconds until the client may retry. */
+    public long tryAcquire(Policy policy, String client) {
+        long now = System.nanoTime();
+        AtomicLong bucket = policy.buckets.get(client);
+        if (bucket == null) {
+            bucket = policy.buckets.computeIfAbsent(client, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now < 0 ? now : fullAt;
+            long ahead = start - now;
+            if (ahead > policy.toleranceNanos) {
+                policy.rejected.increment();
+                return ahead - policy.toleranceNanos;
+            }
+            if (bucket.compareAndSet(fullAt, start + policy.intervalNanos)) {
+                policy.allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    // A bucket whose full-again time has passed behaves exactly like a new one, so dropping it loses nothing
+    // (apart from a request racing with the removal, which then starts a fresh bucket)
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        for (Policy policy : policies) {
+            policy.buckets.entrySet().removeIf(e -> e.getValue().get() - now < 0);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.trick_manager.Trick_API.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sends read-only transactions to the replica and everything else to the primary.
+ * After a user writes, that user's reads stay on the primary for a short window so
+ * they always see their own changes despite replication lag.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private static final int CLEANUP_THRESHOLD = 10_000;
+
+    private final long stickyWindowMs;
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReplicaRoutingDataSource(long stickyWindowMs) {
+        this.stickyWindowMs = stickyWindowMs;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String username = currentUsername();
+        long now = System.currentTimeMillis();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (username != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                stickyUntil.put(username, now + stickyWindowMs);
+                if (stickyUntil.size() > CLEANUP_THRESHOLD) {
+                    stickyUntil.values().removeIf(until -> until < now);
+                }
+            }
+            return PRIMARY;
+        }
+
+        if (username != null) {
+            Long until = stickyUntil.get(username);
+            if (until != null && until >= now) return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    private String currentUsername() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 @Configuration
 public class SecurityConfig {
@@ -15,6 +16,15 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthFilter;
 
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.csrf(AbstractHttpConfigurer::disable) // Disable CSRF for REST APIs
@@ -22,11 +32,24 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // UPDATE THESE PATHS HERE:
                         .requestMatchers("/api/users/login", "/api/users/register").permitAll()
+                        .requestMatchers("/api/users/refresh", "/api/users/logout").permitAll()
                         .requestMatchers("/api/tricks/**", "/api/categories/**").permitAll()
+                        // Loaded by <img> tags and shared caches, which send no token
+                        .requestMatchers("/api/users/profile/*/image").permitAll()
+                        // Probes for the load balancer on the API port
+                        .requestMatchers("/livez", "/readyz").permitAll()
+                        // Actuator: the port is the access check, it is only reachable inside the deployment
+                        .requestMatchers(request -> separateManagementPort() && request.getLocalPort() == managementPort).permitAll()
                         .anyRequest().authenticated()
                 );
 
         http.addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), JwtAuthenticationFilter.class);
         return http.build();
     }
-}
\ No newline at end of file
+
+    // Same port (or none set): actuator requests are ordinary API requests and need a token
+    private boolean separateManagementPort() {
+        return managementPort > 0 && managementPort != serverPort;
+    }
+}
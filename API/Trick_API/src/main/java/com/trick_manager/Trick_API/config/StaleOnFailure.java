@@ -0,0 +1,13 @@
+package com.trick_manager.Trick_API.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Read method that may answer with its last good result while the database is unavailable,
+// see StaleOnFailureAspect. Only for methods without side effects.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StaleOnFailure {
+}
@@ -0,0 +1,88 @@
+package com.trick_manager.Trick_API.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Stale-while-revalidate for {@link StaleOnFailure} methods: every successful call refreshes the last
+ * good result per method and arguments, and a database failure (or an open circuit breaker) is answered
+ * with that result plus an Age and a Warning header. Without a stored result the failure is rethrown.
+ * Ordered around the circuit breaker, so a rejected call never waits for the database.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StaleOnFailureAspect {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Bounded by stored elements, a per-user trick list weighs as much as it has entries
+    @Value("${resilience.stale.max-elements:200000}")
+    private long maxElements;
+
+    @Value("${resilience.stale.max-age-ms:3600000}")
+    private long maxAgeMs;
+
+    private Cache<List<Object>, Snapshot> lastGood;
+    private Counter staleResponses;
+
+    private record Snapshot(Object value, long storedAt) {
+    }
+
+    @PostConstruct
+    void init() {
+        lastGood = Caffeine.newBuilder()
+                .maximumWeight(maxElements)
+                .weigher((List<Object> key, Snapshot snapshot) ->
+                        snapshot.value() instanceof Collection<?> collection ? 1 + collection.size() : 1)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .build();
+        staleResponses = Counter.builder("db.circuit.stale.responses").register(meterRegistry);
+    }
+
+    @Around("@annotation(com.trick_manager.Trick_API.config.StaleOnFailure)")
+    public Object serveStaleOnFailure(ProceedingJoinPoint joinPoint) throws Throwable {
+        List<Object> key = Arrays.asList(joinPoint.getSignature().toLongString(), Arrays.asList(joinPoint.getArgs()));
+        try {
+            // Stores the reference, the controller serializes (and thereby initializes) it in the same request
+            Object result = joinPoint.proceed();
+            lastGood.put(key, new Snapshot(result, System.currentTimeMillis()));
+            return result;
+        } catch (Throwable e) {
+            Snapshot snapshot = DatabaseCircuitBreaker.isDatabaseFailure(e) ? lastGood.getIfPresent(key) : null;
+            if (snapshot == null) throw e;
+
+            staleResponses.increment();
+            markStale(System.currentTimeMillis() - snapshot.storedAt());
+            return snapshot.value();
+        }
+    }
+
+    private void markStale(long ageMs) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getResponse() != null) {
+            attributes.getResponse().setHeader(HttpHeaders.AGE, String.valueOf(ageMs / 1000));
+            attributes.getResponse().setHeader(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+        }
+    }
+}
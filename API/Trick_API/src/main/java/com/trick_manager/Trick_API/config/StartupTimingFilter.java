@@ -0,0 +1,64 @@
+package com.trick_manager.Trick_API.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Reports cold start cost: time until ready and latency of the very first request
+@Component
+public class StartupTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupTimingFilter.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    // Gauges only hold a weak reference, so keep the values here
+    private final AtomicLong readyMs = new AtomicLong();
+    private final AtomicLong firstRequestMs = new AtomicLong();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        readyMs.set(uptimeMs);
+        meterRegistry.gauge("app.startup.ready.ms", readyMs);
+        log.info("Ready {} ms after JVM start", uptimeMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (firstRequestSeen.get() || !firstRequestSeen.compareAndSet(false, true)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            firstRequestMs.set(tookMs);
+            meterRegistry.gauge("app.startup.first.request.ms", firstRequestMs);
+            log.info("First request {} {} took {} ms, finished {} ms after JVM start",
+                    request.getMethod(), request.getRequestURI(), tookMs, ManagementFactory.getRuntimeMXBean().getUptime());
+        }
+    }
+}
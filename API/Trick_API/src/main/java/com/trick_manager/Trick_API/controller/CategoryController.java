@@ -1,16 +1,16 @@
 package com.trick_manager.Trick_API.controller;
 
 import com.trick_manager.Trick_API.entity.Category;
-import com.trick_manager.Trick_API.entity.User;
 import com.trick_manager.Trick_API.repository.CategoryRepository;
+import com.trick_manager.Trick_API.service.CacheInvalidationBus;
 import com.trick_manager.Trick_API.service.CategoryService;
+import com.trick_manager.Trick_API.service.SingleFlight;
 import com.trick_manager.Trick_API.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -25,11 +25,15 @@ public class CategoryController {
     private UserService userService;
     @Autowired
     private CategoryService categoryService;
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+    @Autowired
+    private SingleFlight singleFlight;
 
     // Get all categories
     @GetMapping
-    public List<Category> getAll() {
-        return repository.findAll();
+    public ResponseEntity<byte[]> getAll() {
+        return singleFlight.serialized("categories", "all", categoryService::getAllCategories);
     }
 
     // Get category by ID
@@ -43,16 +47,18 @@ public class CategoryController {
     public ResponseEntity<?> getCategoryStats(Principal principal) {
         if (principal == null) return ResponseEntity.status(401).build();
 
-        User user = userService.findByUsername(principal.getName()).orElseThrow();
+        Long userId = userService.findIdByUsername(principal.getName()).orElseThrow();
 
         // This calls a new service method we'll create below
-        return ResponseEntity.ok(categoryService.getCategoryStatsForUser(user.getId()));
+        return ResponseEntity.ok(categoryService.getCategoryStatsForUser(userId));
     }
 
     // Create new category
     @PostMapping
     public Category create(@RequestBody Category category) {
-        return repository.save(category);
+        Category saved = repository.save(category);
+        invalidationBus.publish(CacheInvalidationBus.CATEGORY, saved.getId());
+        return saved;
     }
 
     // Update category
@@ -61,6 +67,7 @@ public class CategoryController {
         return repository.findById(id).map(category -> {
             category.setName(categoryDetails.getName());
             Category updated = repository.save(category);
+            invalidationBus.publish(CacheInvalidationBus.CATEGORY, id);
             return ResponseEntity.ok(updated);
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -70,6 +77,7 @@ public class CategoryController {
     public ResponseEntity<Object> delete(@PathVariable Long id) {
         return repository.findById(id).map(category -> {
             repository.delete(category);
+            invalidationBus.publish(CacheInvalidationBus.CATEGORY, id);
             return ResponseEntity.noContent().build();
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
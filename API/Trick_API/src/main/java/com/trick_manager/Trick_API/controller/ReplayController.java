@@ -0,0 +1,37 @@
+package com.trick_manager.Trick_API.controller;
+
+import com.trick_manager.Trick_API.dto.ReplayRequest;
+import com.trick_manager.Trick_API.entity.User;
+import com.trick_manager.Trick_API.service.ReplayService;
+import com.trick_manager.Trick_API.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.security.Principal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/replay")
+@CrossOrigin(origins = "*")
+public class ReplayController {
+
+    @Autowired
+    private ReplayService replayService;
+
+    @Autowired
+    private UserService userService;
+
+    // Offline queue of the app, applied in order with per-item results
+    @PostMapping
+    public ResponseEntity<?> replay(@RequestBody ReplayRequest request, Principal principal) {
+        if (request.getMutations() == null || request.getMutations().size() > ReplayService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().body("mutations missing or more than " + ReplayService.MAX_BATCH_SIZE);
+        }
+
+        User user = userService.findByUsername(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        return ResponseEntity.ok(Map.of("results", replayService.replay(user, request.getMutations())));
+    }
+}
@@ -1,14 +1,20 @@
 package com.trick_manager.Trick_API.controller;
 
 import com.trick_manager.Trick_API.entity.SessionGoal;
+import com.trick_manager.Trick_API.entity.SessionGoalArchive;
 import com.trick_manager.Trick_API.entity.User;
+import com.trick_manager.Trick_API.repository.SessionGoalArchiveRepository;
 import com.trick_manager.Trick_API.repository.SessionGoalRepository;
 import com.trick_manager.Trick_API.repository.UserRepository;
-import com.trick_manager.Trick_API.service.TrickActionService;
+import com.trick_manager.Trick_API.service.SessionGoalService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
@@ -22,18 +28,44 @@ public class SessionGoalController {
     private UserRepository userRepository;
 
     @Autowired
-    private TrickActionService trickActionService;
+    private SessionGoalService sessionGoalService;
 
+    @Autowired
+    private SessionGoalArchiveRepository archiveRepository;
+
+    @Value("${session-goals.recent-days:30}")
+    private int recentDays;
+
+    // By default open goals of any age and completed goals of the recent partitions,
+    // with ?since= every goal created since then
     @GetMapping
-    public List<SessionGoal> getGoals(Authentication authentication) {
+    public List<SessionGoal> getGoals(Authentication authentication,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since) {
         User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
-        return goalRepository.findByUserOrderByCreatedAtDesc(user);
+        if (since != null) return goalRepository.findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(user, since);
+        // Two queries instead of one OR, each of them can skip partitions: the recent window by created_at,
+        // older open goals by the partial index. Disjoint, and the older ones sort after the recent ones.
+        LocalDateTime recent = LocalDateTime.now().minusDays(recentDays);
+        List<SessionGoal> goals = new ArrayList<>(goalRepository.findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(user, recent));
+        goals.addAll(goalRepository.findByUserAndIsCompletedFalseAndCreatedAtBeforeOrderByCreatedAtDesc(user, recent));
+        return goals;
+    }
+
+    // Monthly summaries of archived goals
+    @GetMapping("/archive")
+    public List<SessionGoalArchive> getArchive(Authentication authentication) {
+        User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
+        return archiveRepository.findByUserIdOrderByMonthDesc(user.getId());
     }
 
     @PostMapping
     public SessionGoal addGoal(@RequestBody SessionGoal goal, Authentication authentication) {
         User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
         goal.setUser(user);
+        // Partition key, must not be null
+        if (goal.getCreatedAt() == null) {
+            goal.setCreatedAt(LocalDateTime.now());
+        }
         
         // Ensure timerDuration is set if remainingTime is provided on creation
         if (goal.getTimerDuration() == null && goal.getRemainingTime() != null) {
@@ -45,28 +77,7 @@ public class SessionGoalController {
 
     @PutMapping("/{id}")
     public SessionGoal updateGoal(@PathVariable Long id, @RequestBody SessionGoal goalDetails, Authentication authentication) {
-        SessionGoal goal = goalRepository.findById(id).orElseThrow();
-        User user = userRepository.findByUsername(authentication.getName()).orElseThrow();
-        
-        // Security check
-        if (!goal.getUser().getUsername().equals(user.getUsername())) {
-            throw new RuntimeException("Unauthorized");
-        }
-        
-        boolean wasCompleted = goal.isCompleted();
-        
-        goal.setCurrentCount(goalDetails.getCurrentCount());
-        goal.setRemainingTime(goalDetails.getRemainingTime());
-        goal.setCompleted(goalDetails.isCompleted());
-        
-        SessionGoal updatedGoal = goalRepository.save(goal);
-        
-        // If goal was just completed and it's a trick goal, add to completed tricks
-        if (!wasCompleted && updatedGoal.isCompleted() && "trick".equals(updatedGoal.getType()) && updatedGoal.getTrickId() != null) {
-            trickActionService.addToCompleted(user.getId(), updatedGoal.getTrickId());
-        }
-        
-        return updatedGoal;
+        return sessionGoalService.updateGoal(id, goalDetails, authentication.getName());
     }
 
     @DeleteMapping("/{id}")
@@ -1,10 +1,9 @@
 package com.trick_manager.Trick_API.controller;
 
 import com.trick_manager.Trick_API.dto.TrickActionRequest;
-import com.trick_manager.Trick_API.entity.Trick;
 import com.trick_manager.Trick_API.service.TrickActionService;
+import com.trick_manager.Trick_API.service.TrickListService;
 import com.trick_manager.Trick_API.repository.UserRepository;
-import com.trick_manager.Trick_API.entity.User;
 import com.trick_manager.Trick_API.service.TrickService;
 import com.trick_manager.Trick_API.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,8 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
-import java.util.List;
-import java.util.Map;
 
 @RestController
 @RequestMapping("/api")
@@ -26,6 +23,8 @@ public class TrickActionController {
     private UserService userService;
     @Autowired
     private TrickService trickService;
+    @Autowired
+    private TrickListService trickListService;
 
     @Autowired
     private UserRepository userRepository;
@@ -37,10 +36,24 @@ public class TrickActionController {
     }
 
     @GetMapping("/wishlist")
-    public ResponseEntity<List<Trick>> getWishlistTricks(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
+    public ResponseEntity<?> getWishlistTricks(
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            Principal principal) {
+        Long userId = userService.findIdByUsername(principal.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity.ok(trickService.getWishlistTricksForUser(user.getId()));
+
+        if (fields == null && sort == null && cursor == null && limit == null) {
+            return ResponseEntity.ok(trickService.getWishlistTricksForUser(userId));
+        }
+        try {
+            return ResponseEntity.ok(TrickListService.body(
+                    trickListService.getWishlist(userId, fields, sort, cursor, limit), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping("/wishlist/add")
@@ -56,11 +69,24 @@ public class TrickActionController {
     }
 
     @GetMapping("/completed")
-    public ResponseEntity<List<Map<String, Object>>> getCompletedTricks(Principal principal) {
-        User user = userService.findByUsername(principal.getName())
+    public ResponseEntity<?> getCompletedTricks(
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "sort", required = false) String sort,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            Principal principal) {
+        Long userId = userService.findIdByUsername(principal.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return ResponseEntity.ok(trickService.getCompletedTricksWithTimestamps(user.getId()));
+        if (fields == null && sort == null && cursor == null && limit == null) {
+            return ResponseEntity.ok(trickService.getCompletedTricksWithTimestamps(userId));
+        }
+        try {
+            return ResponseEntity.ok(TrickListService.body(
+                    trickListService.getCompleted(userId, fields, sort, cursor, limit), cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @PostMapping("/completed/add")
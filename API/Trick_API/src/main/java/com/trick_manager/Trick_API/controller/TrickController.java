@@ -1,7 +1,9 @@
 package com.trick_manager.Trick_API.controller;
 
 import com.trick_manager.Trick_API.entity.Trick;
-import com.trick_manager.Trick_API.entity.User;
+import com.trick_manager.Trick_API.service.RecommendationService;
+import com.trick_manager.Trick_API.service.SingleFlight;
+import com.trick_manager.Trick_API.service.TrickListService;
 import com.trick_manager.Trick_API.service.TrickService;
 import com.trick_manager.Trick_API.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,6 +12,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.security.Principal;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tricks")
@@ -22,6 +25,15 @@ public class TrickController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private TrickListService trickListService;
+
     @PostMapping
     public Trick createTrick(@RequestBody Trick trick) {
         return trickService.createTrick(trick);
@@ -30,17 +42,54 @@ public class TrickController {
     @GetMapping
     public ResponseEntity<?> getAllTricks(
             @RequestParam(name = "category_id", required = false) Long categoryId,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit,
             Principal principal) {
 
+        if (fields != null || cursor != null || limit != null) {
+            Long userId = principal == null ? null : userService.findIdByUsername(principal.getName())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            try {
+                return ResponseEntity.ok(TrickListService.body(
+                        trickListService.getTricks(userId, categoryId, fields, cursor, limit), cursor, limit));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
+        }
+
         if (principal == null) {
-            return ResponseEntity.ok(trickService.getAllTricksWithFalseFlags(categoryId));
+            return singleFlight.serialized("tricks", String.valueOf(categoryId),
+                    () -> trickService.getAllTricksWithFalseFlags(categoryId));
         }
 
         // Korrekter Aufruf über die injizierte Instanz 'userService'
-        User user = userService.findByUsername(principal.getName())
+        Long userId = userService.findIdByUsername(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+
+        // Personal flags: only coalesced while in flight, never reused afterwards
+        return singleFlight.serialized("tricks-user", userId + "|" + categoryId,
+                () -> trickService.getTricksForUser(userId, categoryId));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Map<String, Object>>> searchTricks(
+            @RequestParam(name = "q") String query,
+            @RequestParam(name = "category_id", required = false) Long categoryId,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(trickService.searchTricks(query, categoryId, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/recommendations")
+    public ResponseEntity<?> getRecommendations(
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            Principal principal) {
+        if (principal == null) return ResponseEntity.status(401).build();
+
+        Long userId = userService.findIdByUsername(principal.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
-        return ResponseEntity.ok(trickService.getTricksForUser(user.getId(), categoryId));
+        return ResponseEntity.ok(recommendationService.getRecommendations(userId, Math.min(limit, 50)));
     }
 
     @GetMapping("/{id}")
@@ -1,19 +1,41 @@
 package com.trick_manager.Trick_API.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.trick_manager.Trick_API.entity.User;
 import com.trick_manager.Trick_API.repository.LeaderboardProjection;
 import com.trick_manager.Trick_API.repository.UserRepository;
+import com.trick_manager.Trick_API.service.FollowService;
+import com.trick_manager.Trick_API.service.LeaderboardStreamService;
+import com.trick_manager.Trick_API.service.LevelService;
+import com.trick_manager.Trick_API.service.ProfileCardService;
+import com.trick_manager.Trick_API.service.ProgressService;
+import com.trick_manager.Trick_API.service.RefreshTokenService;
+import com.trick_manager.Trick_API.service.SingleFlight;
+import com.trick_manager.Trick_API.service.UserExportService;
 import com.trick_manager.Trick_API.service.UserService;
 import com.trick_manager.Trick_API.config.JwtUtils;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.security.Principal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/users")
@@ -26,6 +48,33 @@ public class UserController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private FollowService followService;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProfileCardService profileCardService;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@RequestBody User user) {
         try {
@@ -41,11 +90,31 @@ public class UserController {
         String username = credentials.get("username");
         String password = credentials.get("password");
 
-        if (userService.validateUser(username, password)) {
-            String token = jwtUtils.generateToken(username);
-            return ResponseEntity.ok(Map.of("token", token));
-        }
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Ungültige Zugangsdaten");
+        return userService.authenticate(username, password)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(issueTokens(user)))
+                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Ungültige Zugangsdaten"));
+    }
+
+    // Exchanges a refresh token for a new access/refresh token pair without touching BCrypt
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> request) {
+        return refreshTokenService.consume(request.get("refreshToken"))
+                .flatMap(userService::findById)
+                .<ResponseEntity<?>>map(user -> ResponseEntity.ok(issueTokens(user)))
+                .orElse(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Ungültiges Refresh-Token"));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody Map<String, String> request) {
+        refreshTokenService.revoke(request.get("refreshToken"));
+        return ResponseEntity.ok().build();
+    }
+
+    private Map<String, String> issueTokens(User user) {
+        return Map.of(
+                "token", jwtUtils.generateToken(user.getUsername()),
+                "refreshToken", refreshTokenService.createRefreshToken(user.getId())
+        );
     }
 
     @GetMapping("/me")
@@ -57,11 +126,52 @@ public class UserController {
         return userService.findByUsername(principal.getName())
                 .map(user -> {
                     user.setPassword(null);
-                    return ResponseEntity.ok(user);
+                    return ResponseEntity.ok(withLevel(user));
                 })
                 .orElse(ResponseEntity.status(404).build());
     }
 
+    @GetMapping("/me/progress")
+    public ResponseEntity<?> getProgress(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).body("Not authenticated");
+        }
+
+        return userService.findIdByUsername(principal.getName())
+                .<ResponseEntity<?>>map(userId -> ResponseEntity.ok(progressService.getProgress(userId)))
+                .orElse(ResponseEntity.status(404).build());
+    }
+
+    // Full data export as NDJSON, streamed from a database cursor and gzipped on the fly
+    @GetMapping("/me/export")
+    public void exportData(Principal principal,
+                           @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                           HttpServletResponse response) throws IOException {
+        if (principal == null) {
+            response.sendError(401, "Not authenticated");
+            return;
+        }
+
+        Optional<User> user = userService.findByUsername(principal.getName());
+        if (user.isEmpty()) {
+            response.sendError(404);
+            return;
+        }
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"skaterz-export.ndjson\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        if (gzip) response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), 8192) : response.getOutputStream();
+        try (out) {
+            userExportService.export(user.get().getId(), out);
+        }
+    }
+
     @DeleteMapping("/me")
     public ResponseEntity<?> deleteCurrentUser(Principal principal) {
         if (principal == null) {
@@ -80,11 +190,62 @@ public class UserController {
         return userService.findById(id)
                 .map(user -> {
                     user.setPassword(null);
-                    return ResponseEntity.ok(user);
+                    return ResponseEntity.ok(withLevel(user));
                 })
                 .orElse(ResponseEntity.status(404).build());
     }
 
+    // Compact public profile from the card cache, answered with 304 while the card is unchanged
+    @GetMapping("/profile/{id}/card")
+    public ResponseEntity<?> getProfileCard(@PathVariable Long id) {
+        return profileCardService.getCard(id)
+                .<ResponseEntity<?>>map(card -> ResponseEntity.ok()
+                        .eTag(card.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .body(card.body()))
+                .orElse(ResponseEntity.status(404).build());
+    }
+
+    // The card links this with ?v=<hash>, such URLs never change their content.
+    // Without a token only such URLs are served (so ids cannot be walked), checked in one query.
+    @GetMapping("/profile/{id}/image")
+    public ResponseEntity<?> getProfileImage(@PathVariable Long id,
+                                             @RequestParam(name = "v", required = false) String version,
+                                             WebRequest request, Principal principal) {
+        if (principal == null) {
+            if (version == null) return ResponseEntity.status(404).build();
+            if (request.checkNotModified(version)) return null;
+            return profileCardService.getImage(id, version)
+                    .<ResponseEntity<?>>map(image -> ResponseEntity.ok()
+                            .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                            .contentType(ProfileCardService.imageType(image))
+                            .body(image))
+                    .orElse(ResponseEntity.status(404).build());
+        }
+
+        String hash = profileCardService.getCard(id).map(ProfileCardService.Card::imageHash).orElse(null);
+        if (hash == null) return ResponseEntity.status(404).build();
+        if (request.checkNotModified(hash)) return null;
+
+        byte[] image = profileCardService.getImage(id).orElse(null);
+        if (image == null) return ResponseEntity.status(404).build();
+        CacheControl cacheControl = hash.equals(version)
+                ? CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable()
+                : CacheControl.noCache();
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(ProfileCardService.imageType(image))
+                .body(image);
+    }
+
+    // User fields plus the stored level and achievements (one primary-key lookup)
+    private Map<String, Object> withLevel(User user) {
+        Map<String, Object> body = objectMapper.convertValue(user, new TypeReference<LinkedHashMap<String, Object>>() {});
+        body.putAll(levelService.getLevel(user.getId()));
+        return body;
+    }
+
     @PostMapping("/me/image")
     public ResponseEntity<?> updateProfileImage(@RequestBody Map<String, String> request, Principal principal) {
         String base64Image = request.get("image");
@@ -95,8 +256,55 @@ public class UserController {
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<LeaderboardProjection>> getLeaderboard(
+    public ResponseEntity<?> getLeaderboard(
+            @RequestParam(name = "category_id", required = false) Long categoryId,
+            @RequestParam(name = "scope", defaultValue = "all") String scope,
+            Principal principal) {
+        if ("friends".equals(scope)) {
+            if (principal == null) return ResponseEntity.status(401).body("Not authenticated");
+            Long userId = userService.findIdByUsername(principal.getName())
+                    .orElseThrow(() -> new RuntimeException("User not found"));
+            return ResponseEntity.ok(followService.getFriendsLeaderboardData(userId, categoryId));
+        }
+        return singleFlight.serialized("leaderboard", String.valueOf(categoryId), () -> userService.getLeaderboardData(categoryId));
+    }
+
+    @GetMapping("/me/following")
+    public ResponseEntity<?> getFollowing(Principal principal) {
+        if (principal == null) return ResponseEntity.status(401).body("Not authenticated");
+        Long userId = userService.findIdByUsername(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ResponseEntity.ok(followService.getFollowing(userId));
+    }
+
+    @PostMapping("/{id}/follow")
+    public ResponseEntity<?> follow(@PathVariable Long id, Principal principal) {
+        if (principal == null) return ResponseEntity.status(401).body("Not authenticated");
+        User user = userService.findByUsername(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        try {
+            followService.follow(user.getId(), id);
+            return ResponseEntity.ok().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(e.getMessage());
+        }
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public ResponseEntity<?> unfollow(@PathVariable Long id, Principal principal) {
+        if (principal == null) return ResponseEntity.status(401).body("Not authenticated");
+        User user = userService.findByUsername(principal.getName())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        followService.unfollow(user.getId(), id);
+        return ResponseEntity.ok().build();
+    }
+
+    // Full ranking once, then only rank/count changes as they happen
+    @GetMapping(path = "/leaderboard/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLeaderboard(
             @RequestParam(name = "category_id", required = false) Long categoryId) {
-        return ResponseEntity.ok(userService.getLeaderboardData(categoryId));
+        return leaderboardStreamService.subscribe(categoryId);
     }
 }
@@ -0,0 +1,17 @@
+package com.trick_manager.Trick_API.dto;
+
+import com.trick_manager.Trick_API.entity.SessionGoal;
+import lombok.Data;
+
+// One queued offline action, see ReplayService for the supported ops
+@Data
+public class ReplayMutation {
+    private String idempotencyKey;
+    private String op;
+    // Epoch millis on the client when the action was made
+    private Long clientTimestamp;
+    // Same name as in TrickActionRequest
+    private Long trick_id;
+    // For goal.update, the same body as PUT /api/goals/{id}
+    private SessionGoal goal;
+}
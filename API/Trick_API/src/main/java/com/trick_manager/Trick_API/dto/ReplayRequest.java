@@ -0,0 +1,10 @@
+package com.trick_manager.Trick_API.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ReplayRequest {
+    private List<ReplayMutation> mutations;
+}
@@ -2,9 +2,13 @@ package com.trick_manager.Trick_API.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "catalog-category")
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class Category {
 
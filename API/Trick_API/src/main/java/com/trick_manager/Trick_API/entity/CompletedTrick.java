@@ -5,7 +5,10 @@ import lombok.Data;
 import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
-@Entity@Table(name = "completed_tricks")
+@Entity@Table(name = "completed_tricks", indexes = {
+        // Per-user counts in the leaderboard query, otherwise a full scan per user
+        @Index(name = "idx_completed_tricks_user_trick", columnList = "user_id, trick_id")
+})
 @Data
 public class CompletedTrick {
     @Id
@@ -0,0 +1,29 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Time of the last applied write per user and entity (e.g. "completed:12"), used for last-writer-wins.
+// Removed once older than replay.max-offline-days, replayed writes are never older than that.
+@Entity
+@Table(name = "mutation_clocks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_mutation_clocks", columnNames = {"user_id", "entity_key"})
+}, indexes = {
+        @Index(name = "idx_mutation_clocks_modified_at", columnList = "modified_at")
+})
+@Data
+public class MutationClock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "entity_key", nullable = false, length = 64)
+    private String entityKey;
+
+    @Column(name = "modified_at", nullable = false)
+    private LocalDateTime modifiedAt;
+}
@@ -0,0 +1,45 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import java.time.LocalDateTime;
+
+// Append-only, written in the same transaction as the change it describes
+@Entity
+@Table(name = "outbox_events", indexes = @Index(name = "idx_outbox_events_tx_id_id", columnList = "tx_id, id"))
+@Data
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OutboxEventType type;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "trick_id")
+    private Long trickId;
+
+    @Column(name = "goal_id")
+    private Long goalId;
+
+    // TRICK_COMPLETED: the user's completions before this one as of the write, newest first, comma-separated
+    @Column(name = "previous_trick_ids")
+    private String previousTrickIds;
+
+    // Id of the inserting transaction, set by the database. Read in (tx_id, id) order once every older
+    // transaction has finished, see OutboxEventRepository.findBatch.
+    // Only the type in columnDefinition, the schema update compares it with the column's type
+    @ColumnDefault("pg_current_xact_id()")
+    @Column(name = "tx_id", nullable = false, insertable = false, updatable = false, columnDefinition = "xid8")
+    private Long txId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,9 @@
+package com.trick_manager.Trick_API.entity;
+
+public enum OutboxEventType {
+    TRICK_COMPLETED,
+    TRICK_UNCOMPLETED,
+    WISHLIST_ADDED,
+    WISHLIST_REMOVED,
+    GOAL_COMPLETED
+}
@@ -7,6 +7,8 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
+// Range-partitioned by month on created_at, partitions and the (user_id, created_at) index
+// are managed by SessionGoalPartitionService (Hibernate does not see indexes of partitioned tables)
 @Table(name = "session_goals")
 @Data
 public class SessionGoal {
@@ -44,6 +46,6 @@ public class SessionGoal {
     @Column(name = "is_completed")
     private boolean isCompleted = false;
 
-    @Column(name = "created_at")
+    @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 }
@@ -0,0 +1,37 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+// Summary of the completed goals of a user in one month, written when they are archived from session_goals
+@Entity
+@Table(name = "session_goal_archive", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_session_goal_archive", columnNames = {"user_id", "month"})
+})
+@Data
+public class SessionGoalArchive {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // First day of the month
+    @Column(nullable = false)
+    private LocalDate month;
+
+    @Column(name = "completed_goals", nullable = false)
+    private Integer completedGoals = 0;
+
+    @Column(name = "trick_goals", nullable = false)
+    private Integer trickGoals = 0;
+
+    // Sum of current_count over the archived goals
+    @Column(name = "total_count", nullable = false)
+    private Long totalCount = 0L;
+
+    @Column(name = "total_timer_seconds", nullable = false)
+    private Long totalTimerSeconds = 0L;
+}
@@ -0,0 +1,25 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Completed tricks per user and category, maintained together with UserDailyProgress
+@Entity
+@Table(name = "user_completion_counts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_completion_counts", columnNames = {"user_id", "category_id"})
+})
+@Data
+public class UserCompletionCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount = 0;
+}
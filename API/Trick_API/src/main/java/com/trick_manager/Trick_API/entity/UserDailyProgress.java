@@ -0,0 +1,29 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDate;
+
+// Completions per user, day and category, maintained incrementally by ProgressService
+@Entity
+@Table(name = "user_daily_progress", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_daily_progress", columnNames = {"user_id", "day", "category_id"})
+})
+@Data
+public class UserDailyProgress {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDate day;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(name = "completed_count", nullable = false)
+    private Integer completedCount = 0;
+}
@@ -0,0 +1,29 @@
+package com.trick_manager.Trick_API.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+// Level and achievements per user as of the last evaluation, see LevelService
+@Entity
+@Table(name = "user_levels")
+@Data
+public class UserLevel {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "level_id", nullable = false)
+    private Integer levelId;
+
+    // Comma-separated achievement ids in rule order
+    @Column(name = "achievements", nullable = false, columnDefinition = "TEXT")
+    private String achievements = "";
+
+    // Rules the row was evaluated with, rows with another version are picked up by the re-evaluation
+    @Column(name = "rules_version", nullable = false, length = 16)
+    private String rulesVersion = "";
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
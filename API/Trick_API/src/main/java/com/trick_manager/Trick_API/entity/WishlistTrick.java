@@ -7,7 +7,10 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "wishlist_tricks")
+@Table(name = "wishlist_tricks", indexes = {
+        // Wishlist pages and flags of one user
+        @Index(name = "idx_wishlist_tricks_user_trick", columnList = "user_id, trick_id")
+})
 @Data
 public class WishlistTrick {
     @Id
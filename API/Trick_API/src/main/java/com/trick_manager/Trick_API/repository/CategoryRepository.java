@@ -1,9 +1,22 @@
 package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries"),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST)
+    })
+    List<Category> findAll();
 }
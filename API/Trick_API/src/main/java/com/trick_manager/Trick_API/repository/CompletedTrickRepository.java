@@ -1,16 +1,25 @@
 package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.CompletedTrick;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository 
 public interface CompletedTrickRepository extends JpaRepository<CompletedTrick, Long> {
     boolean existsByUserIdAndTrickId(Long userId, Long trickId);
+
+    Optional<CompletedTrick> findFirstByUserIdAndTrickId(Long userId, Long trickId);
     
     @Transactional
     @Modifying
@@ -20,9 +29,28 @@ public interface CompletedTrickRepository extends JpaRepository<CompletedTrick,
     @Modifying
     void deleteByUserId(Long userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     @Query(value = "SELECT COUNT(ct.id) FROM completed_tricks ct " +
             "JOIN tricks t ON ct.trick_id = t.id " +
             "WHERE ct.user_id = :userId AND t.category_id = :categoryId",
             nativeQuery = true)
     long countByUserIdAndTrickCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query("SELECT ct.trickId FROM CompletedTrick ct WHERE ct.userId = :userId")
+    List<Long> findTrickIdsByUserId(@Param("userId") Long userId);
+
+    // Completions without a trick id (the endpoints don't reject them) are left out of the transitions
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query("SELECT ct.trickId FROM CompletedTrick ct WHERE ct.userId = :userId AND ct.trickId IS NOT NULL " +
+            "ORDER BY ct.createdAt DESC, ct.id DESC")
+    List<Long> findRecentTrickIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT MAX(ct.userId) FROM CompletedTrick ct")
+    Long findMaxUserId();
+
+    @Query("SELECT ct.userId, ct.trickId FROM CompletedTrick ct " +
+            "WHERE ct.userId > :fromUserId AND ct.userId <= :toUserId AND ct.trickId IS NOT NULL " +
+            "ORDER BY ct.userId, ct.createdAt, ct.id")
+    List<Object[]> findUserTrickPairsInUserRange(@Param("fromUserId") Long fromUserId, @Param("toUserId") Long toUserId);
 }
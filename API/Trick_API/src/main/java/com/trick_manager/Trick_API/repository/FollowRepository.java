@@ -0,0 +1,49 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.Follow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface FollowRepository extends JpaRepository<Follow, Long> {
+    boolean existsByFollowerIdAndFolloweeId(Long followerId, Long followeeId);
+
+    @Transactional
+    @Modifying
+    void deleteByFollowerIdAndFolloweeId(Long followerId, Long followeeId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Follow f WHERE f.followerId = :userId OR f.followeeId = :userId")
+    void deleteAllForUser(@Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query(value = "SELECT u.id as id, u.name as name, u.username as username, " +
+            "u.profile_image as profile_image, COALESCE(SUM(c.completed_count), 0) as completedCount " +
+            "FROM follows f JOIN users u ON u.id = f.followee_id " +
+            "LEFT JOIN user_completion_counts c ON c.user_id = u.id " +
+            "WHERE f.follower_id = :userId " +
+            "GROUP BY u.id ORDER BY u.username", nativeQuery = true)
+    List<LeaderboardProjection> findFollowing(@Param("userId") Long userId);
+
+    // Ranks only the caller and the people they follow, driven by the (follower_id, followee_id) index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query(value = "SELECT u.id as id, u.name as name, u.username as username, " +
+            "u.profile_image as profile_image, COALESCE(SUM(c.completed_count), 0) as completedCount " +
+            "FROM (SELECT f.followee_id AS member_id FROM follows f WHERE f.follower_id = :userId " +
+            "      UNION SELECT CAST(:userId AS bigint)) m " +
+            "JOIN users u ON u.id = m.member_id " +
+            "LEFT JOIN user_completion_counts c ON c.user_id = m.member_id " +
+            "  AND (:category_id IS NULL OR c.category_id = :category_id) " +
+            "GROUP BY u.id " +
+            "ORDER BY completedCount DESC", nativeQuery = true)
+    List<LeaderboardProjection> getFriendsLeaderboardData(@Param("userId") Long userId,
+                                                          @Param("category_id") Long categoryId);
+}
@@ -0,0 +1,45 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.IdempotencyKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    // Returns 0 if the key was already claimed. A concurrent retry with the same key waits for the
+    // first transaction and then sees the conflict.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (user_id, idempotency_key, created_at) VALUES (:userId, :key, :createdAt) " +
+            "ON CONFLICT (user_id, idempotency_key) DO NOTHING",
+            nativeQuery = true)
+    int claim(@Param("userId") Long userId, @Param("key") String key, @Param("createdAt") LocalDateTime createdAt);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Modifying
+    @Query(value = "UPDATE idempotency_keys SET status = :status WHERE user_id = :userId AND idempotency_key = :key",
+            nativeQuery = true)
+    void setStatus(@Param("userId") Long userId, @Param("key") String key, @Param("status") String status);
+
+    @Query("SELECT k.status FROM IdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key")
+    Optional<String> findStatus(@Param("userId") Long userId, @Param("key") String key);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "idempotency_keys"))
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_keys WHERE created_at < :cutoff", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+}
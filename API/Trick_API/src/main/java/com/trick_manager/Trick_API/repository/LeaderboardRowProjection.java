@@ -0,0 +1,9 @@
+package com.trick_manager.Trick_API.repository;
+
+public interface LeaderboardRowProjection {
+    Long getId();
+    String getName();
+    String getUsername();
+    String getImageHash(); // md5 of profile_image, the stream links the image instead of sending it
+    Long getCompletedCount();
+}
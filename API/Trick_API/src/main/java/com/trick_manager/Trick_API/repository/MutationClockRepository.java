@@ -0,0 +1,37 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.MutationClock;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface MutationClockRepository extends JpaRepository<MutationClock, Long> {
+
+    // Returns 1 if the write is newer than the last one for this entity (and records it), 0 if it lost.
+    // The row lock of the upsert orders concurrent writes for the same entity.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mutation_clocks"))
+    @Modifying
+    @Query(value = "INSERT INTO mutation_clocks (user_id, entity_key, modified_at) VALUES (:userId, :entityKey, :modifiedAt) " +
+            "ON CONFLICT (user_id, entity_key) DO UPDATE SET modified_at = EXCLUDED.modified_at " +
+            "WHERE mutation_clocks.modified_at < EXCLUDED.modified_at",
+            nativeQuery = true)
+    int advance(@Param("userId") Long userId, @Param("entityKey") String entityKey,
+                @Param("modifiedAt") LocalDateTime modifiedAt);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "mutation_clocks"))
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM mutation_clocks WHERE modified_at < :cutoff", nativeQuery = true)
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,37 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Events after the position, of transactions older than the oldest one still running. Ids are taken
+    // before commit, but a transaction that is still running has a tx_id at or above that horizon, so
+    // nothing can commit behind the position later.
+    @Query(value = "SELECT * FROM outbox_events " +
+            "WHERE (tx_id, id) > (CAST(CAST(:afterTxId AS text) AS xid8), :afterId) " +
+            "AND tx_id < pg_snapshot_xmin(pg_current_snapshot()) " +
+            "ORDER BY tx_id, id LIMIT :limit",
+            nativeQuery = true)
+    List<OutboxEvent> findBatch(@Param("afterTxId") long afterTxId, @Param("afterId") long afterId,
+                                @Param("limit") int limit);
+
+    // Oldest running transaction: events of older ones are committed and visible to every later read
+    @Query(value = "SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS text) AS bigint)", nativeQuery = true)
+    long findVisibleHorizon();
+
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,8 @@
+package com.trick_manager.Trick_API.repository;
+
+public interface ProfileCardProjection {
+    Long getId();
+    String getName();
+    String getUsername();
+    String getImageHash(); // md5 of profile_image, computed in the database so the image is never loaded
+}
@@ -0,0 +1,11 @@
+package com.trick_manager.Trick_API.repository;
+
+// Statement timeout (seconds) for queries on the request path, set per query with HibernateHints.HINT_TIMEOUT.
+// Bulk and maintenance statements (backfills, archiving, level re-evaluation) have none.
+public final class QueryTimeouts {
+
+    public static final String REQUEST = "5";
+
+    private QueryTimeouts() {
+    }
+}
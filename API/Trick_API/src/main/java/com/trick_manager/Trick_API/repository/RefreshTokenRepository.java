@@ -0,0 +1,30 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // One statement, not a derived delete (select, then delete by id): of two concurrent calls
+    // with the same token exactly one gets 1, the other waits for it and gets 0
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+
+    @Transactional
+    @Modifying
+    void deleteByUserIdAndExpiresAtBefore(Long userId, LocalDateTime time);
+}
@@ -0,0 +1,43 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.SessionGoalArchive;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SessionGoalArchiveRepository extends JpaRepository<SessionGoalArchive, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    List<SessionGoalArchive> findByUserIdOrderByMonthDesc(Long userId);
+
+    // Moves completed goals created before the cutoff into the monthly summaries in one statement,
+    // returns the number of archived goals. Only partitions below the cutoff are scanned.
+    @Query(value = "WITH moved AS (" +
+            "  DELETE FROM session_goals WHERE is_completed AND created_at < :cutoff " +
+            "  RETURNING user_id, created_at, type, current_count, timer_duration" +
+            "), summary AS (" +
+            "  INSERT INTO session_goal_archive (user_id, month, completed_goals, trick_goals, total_count, total_timer_seconds) " +
+            "  SELECT user_id, CAST(date_trunc('month', created_at) AS date), count(*), count(*) FILTER (WHERE type = 'trick'), " +
+            "         COALESCE(sum(current_count), 0), COALESCE(sum(timer_duration), 0) " +
+            "  FROM moved GROUP BY 1, 2 " +
+            "  ON CONFLICT (user_id, month) DO UPDATE SET " +
+            "    completed_goals = session_goal_archive.completed_goals + EXCLUDED.completed_goals, " +
+            "    trick_goals = session_goal_archive.trick_goals + EXCLUDED.trick_goals, " +
+            "    total_count = session_goal_archive.total_count + EXCLUDED.total_count, " +
+            "    total_timer_seconds = session_goal_archive.total_timer_seconds + EXCLUDED.total_timer_seconds " +
+            "  RETURNING 1" +
+            ") SELECT count(*) FROM moved",
+            nativeQuery = true)
+    long archiveCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+}
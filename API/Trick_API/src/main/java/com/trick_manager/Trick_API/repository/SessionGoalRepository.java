@@ -2,11 +2,26 @@ package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.SessionGoal;
 import com.trick_manager.Trick_API.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface SessionGoalRepository extends JpaRepository<SessionGoal, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     List<SessionGoal> findByUserOrderByCreatedAtDesc(User user);
+
+    // The lower bound on created_at lets Postgres prune all older partitions
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    List<SessionGoal> findByUserAndCreatedAtGreaterThanEqualOrderByCreatedAtDesc(User user, LocalDateTime since);
+
+    // Open goals created before the recent window, through the partial index on open goals of each partition;
+    // together with the created_at query above this is the default list
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    List<SessionGoal> findByUserAndIsCompletedFalseAndCreatedAtBeforeOrderByCreatedAtDesc(User user, LocalDateTime before);
 }
@@ -1,8 +1,11 @@
 package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.Trick;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -10,22 +13,45 @@ import java.util.Map;
 
 public interface TrickRepository extends JpaRepository<Trick, Long> {
 
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries"),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST)
+    })
+    List<Trick> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "catalog-queries"),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST)
+    })
     List<Trick> findByCategoryId(Long categoryId);
 
     long countByCategoryId(Long categoryId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     @Query(value = "SELECT t.*, ct.created_at FROM tricks t " +
             "JOIN completed_tricks ct ON t.id = ct.trick_id " +
             "WHERE ct.user_id = :userId",
             nativeQuery = true)
     List<Map<String, Object>> findCompletedTricksByUserIdWithTimestamp(@Param("userId") Long userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query(value = "SELECT t.id, t.name, t.category_id, ct.created_at FROM completed_tricks ct " +
+            "JOIN tricks t ON t.id = ct.trick_id " +
+            "WHERE ct.user_id = :userId ORDER BY ct.created_at DESC NULLS LAST, ct.id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Map<String, Object>> findRecentCompletionsByUserId(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     @Query(value = "SELECT t.* FROM tricks t " +
             "JOIN completed_tricks ct ON t.id = ct.trick_id " +
             "WHERE ct.user_id = :userId",
             nativeQuery = true)
     List<Trick> findCompletedTricksByUserId(@Param("userId") Long userId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     @Query(value = "SELECT t.* FROM tricks t " +
             "JOIN wishlist_tricks wt ON t.id = wt.trick_id " +
             "WHERE wt.user_id = :userId",
@@ -0,0 +1,51 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.UserCompletionCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserCompletionCountRepository extends JpaRepository<UserCompletionCount, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    List<UserCompletionCount> findByUserId(Long userId);
+
+    List<UserCompletionCount> findByUserIdIn(Collection<Long> userIds);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_completion_counts"))
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_completion_counts (user_id, category_id, completed_count) " +
+            "SELECT :userId, t.category_id, :delta FROM tricks t WHERE t.id = :trickId " +
+            "ON CONFLICT (user_id, category_id) DO UPDATE " +
+            "SET completed_count = GREATEST(user_completion_counts.completed_count + EXCLUDED.completed_count, 0)",
+            nativeQuery = true)
+    void addCompletions(@Param("userId") Long userId, @Param("trickId") Long trickId, @Param("delta") int delta);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_completion_counts"))
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_completion_counts", nativeQuery = true)
+    void deleteAllRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_completion_counts"))
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_completion_counts (user_id, category_id, completed_count) " +
+            "SELECT ct.user_id, t.category_id, COUNT(*) " +
+            "FROM completed_tricks ct JOIN tricks t ON ct.trick_id = t.id " +
+            "GROUP BY ct.user_id, t.category_id",
+            nativeQuery = true)
+    void backfillFromCompletedTricks();
+}
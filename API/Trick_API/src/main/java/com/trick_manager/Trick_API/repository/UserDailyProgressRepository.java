@@ -0,0 +1,53 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.UserDailyProgress;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface UserDailyProgressRepository extends JpaRepository<UserDailyProgress, Long> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    List<UserDailyProgress> findByUserIdOrderByDayAsc(Long userId);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+
+    // Upsert, the category is resolved from the trick in the same statement.
+    // Declares the touched table, otherwise Hibernate evicts the whole second-level cache on native DML
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_daily_progress"))
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_progress (user_id, day, category_id, completed_count) " +
+            "SELECT :userId, :day, t.category_id, :delta FROM tricks t WHERE t.id = :trickId " +
+            "ON CONFLICT (user_id, day, category_id) DO UPDATE " +
+            "SET completed_count = GREATEST(user_daily_progress.completed_count + EXCLUDED.completed_count, 0)",
+            nativeQuery = true)
+    void addCompletions(@Param("userId") Long userId, @Param("trickId") Long trickId,
+                        @Param("day") LocalDate day, @Param("delta") int delta);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_daily_progress"))
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM user_daily_progress", nativeQuery = true)
+    void deleteAllRows();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_daily_progress"))
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_progress (user_id, day, category_id, completed_count) " +
+            "SELECT ct.user_id, CAST(ct.created_at AS date), t.category_id, COUNT(*) " +
+            "FROM completed_tricks ct JOIN tricks t ON ct.trick_id = t.id " +
+            "WHERE ct.created_at IS NOT NULL " +
+            "GROUP BY ct.user_id, CAST(ct.created_at AS date), t.category_id",
+            nativeQuery = true)
+    void backfillFromCompletedTricks();
+}
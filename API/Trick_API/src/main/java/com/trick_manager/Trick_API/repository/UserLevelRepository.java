@@ -0,0 +1,43 @@
+package com.trick_manager.Trick_API.repository;
+
+import com.trick_manager.Trick_API.entity.UserLevel;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface UserLevelRepository extends JpaRepository<UserLevel, Long> {
+
+    // Rows for users evaluated for the first time, so that they can be locked below
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_levels"))
+    @Modifying
+    @Query(value = "INSERT INTO user_levels (user_id, level_id, achievements, rules_version, updated_at) " +
+            "SELECT u.id, :levelId, '', '', now() FROM users u WHERE u.id IN (:userIds) " +
+            "ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    void insertMissing(@Param("userIds") Collection<Long> userIds, @Param("levelId") int levelId);
+
+    // Locked in id order, so concurrent evaluations of overlapping users cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<UserLevel> findByUserIdInOrderByUserId(Collection<Long> userIds);
+
+    @Query(value = "SELECT u.id FROM users u LEFT JOIN user_levels l ON l.user_id = u.id " +
+            "WHERE u.id > :afterId AND (l.user_id IS NULL OR l.rules_version <> :rulesVersion) " +
+            "ORDER BY u.id LIMIT :limit",
+            nativeQuery = true)
+    List<Long> findUserIdsToEvaluate(@Param("rulesVersion") String rulesVersion,
+                                     @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    void deleteByUserId(Long userId);
+}
@@ -1,8 +1,11 @@
 package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
@@ -12,6 +15,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
 
+    @Query("SELECT u.id FROM User u WHERE u.username = :username")
+    Optional<Long> findIdByUsername(@Param("username") String username);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
     @Query(value = "SELECT u.id as id, u.name as name, u.username as username, " +
             "u.profile_image as profile_image, " +
             "(SELECT COUNT(*) FROM completed_tricks ct " +
@@ -20,4 +27,27 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "FROM users u " +
             "ORDER BY completedCount DESC", nativeQuery = true)
     List<LeaderboardProjection> getLeaderboardData(@Param("category_id") Long categoryId);
+
+    // Same ranking for the leaderboard stream, with the image hash instead of the image
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query(value = "SELECT u.id as id, u.name as name, u.username as username, " +
+            "md5(u.profile_image) as imageHash, " +
+            "(SELECT COUNT(*) FROM completed_tricks ct " +
+            " JOIN tricks t ON ct.trick_id = t.id " +
+            " WHERE ct.user_id = u.id AND (:category_id IS NULL OR t.category_id = :category_id)) as completedCount " +
+            "FROM users u " +
+            "ORDER BY completedCount DESC", nativeQuery = true)
+    List<LeaderboardRowProjection> getLeaderboardRows(@Param("category_id") Long categoryId);
+
+    @Query(value = "SELECT u.id as id, u.name as name, u.username as username, " +
+            "md5(u.profile_image) as imageHash FROM users u WHERE u.id = :id", nativeQuery = true)
+    Optional<ProfileCardProjection> findProfileCardById(@Param("id") Long id);
+
+    @Query(value = "SELECT u.profile_image FROM users u WHERE u.id = :id", nativeQuery = true)
+    Optional<String> findProfileImageById(@Param("id") Long id);
+
+    // Empty unless the image still has this md5, for versioned URLs requested without a token
+    @Query(value = "SELECT u.profile_image FROM users u WHERE u.id = :id AND md5(u.profile_image) = :hash",
+            nativeQuery = true)
+    Optional<String> findProfileImageByIdAndHash(@Param("id") Long id, @Param("hash") String hash);
 }
@@ -1,10 +1,17 @@
 package com.trick_manager.Trick_API.repository;
 
 import com.trick_manager.Trick_API.entity.WishlistTrick;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
+
 public interface WishlistTrickRepository extends JpaRepository<WishlistTrick, Long> {
     boolean existsByUserIdAndTrickId(Long userId, Long trickId);
     
@@ -15,4 +22,8 @@ public interface WishlistTrickRepository extends JpaRepository<WishlistTrick, Lo
     @Transactional
     @Modifying
     void deleteByUserId(Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_TIMEOUT, value = QueryTimeouts.REQUEST))
+    @Query("SELECT wt.trickId FROM WishlistTrick wt WHERE wt.userId = :userId")
+    List<Long> findTrickIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,259 @@
+package com.trick_manager.Trick_API.service;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Cluster-wide cache invalidation over Postgres LISTEN/NOTIFY.
+ * Writes publish "cache:id" keys after commit; they are batched and sent as one NOTIFY per
+ * flush. Every instance keeps one dedicated listening connection and evicts only the
+ * affected keys. After a lost connection it reconnects and invalidates everything,
+ * because notifications sent in the meantime are gone. A periodic probe query detects
+ * connections that died without an error. Keys that could not be sent are retried.
+ */
+@Service
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD_LENGTH = 7000;
+
+    // For the probe query of the listening connection
+    private static final int SOCKET_TIMEOUT_SECONDS = 30;
+
+    public static final String TRICK = "trick";
+    public static final String CATEGORY = "category";
+    public static final String USER = "user";
+    public static final String PROFILE = "profile";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private List<CacheInvalidationListener> listeners;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    // How often the listening connection is checked with a query, see listenLoop
+    @Value("${cache.invalidation.probe-interval-ms:30000}")
+    private long probeIntervalMs;
+
+    private volatile boolean sendFailing;
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listenerThread;
+
+    public void publish(String cache, Long id) {
+        if (!enabled || id == null) return;
+        String key = cache + ":" + id;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.add(key);
+                }
+            });
+        } else {
+            pending.add(key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.flush-interval-ms:100}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        Set<String> unique = new LinkedHashSet<>();
+        String key;
+        while ((key = pending.poll()) != null) unique.add(key);
+        List<String> keys = new ArrayList<>(unique);
+
+        StringBuilder payload = new StringBuilder(nodeId).append('|');
+        int headerLength = payload.length();
+        int batchStart = 0;
+        for (int i = 0; i < keys.size(); i++) {
+            String k = keys.get(i);
+            if (payload.length() + k.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                if (!send(payload.toString())) {
+                    requeue(keys.subList(batchStart, keys.size()));
+                    return;
+                }
+                payload.setLength(headerLength);
+                batchStart = i;
+            }
+            if (payload.length() > headerLength) payload.append(',');
+            payload.append(k);
+        }
+        if (payload.length() > headerLength && !send(payload.toString())) {
+            requeue(keys.subList(batchStart, keys.size()));
+        }
+    }
+
+    private boolean send(String payload) {
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+            if (sendFailing) {
+                sendFailing = false;
+                log.info("Publishing cache invalidations again");
+            }
+            return true;
+        } catch (Exception e) {
+            // Once per outage, the next flushes retry every interval
+            if (!sendFailing) {
+                sendFailing = true;
+                log.warn("Could not publish cache invalidation, retrying with the next flush", e);
+            }
+            return false;
+        }
+    }
+
+    // Unsent keys go back to the queue, the other instances would otherwise keep serving the old values
+    private void requeue(List<String> keys) {
+        pending.addAll(keys);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) return;
+        running = true;
+        listenerThread = new Thread(this::listenLoop, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listenerThread != null) listenerThread.interrupt();
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1000;
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(), connectionProperties())) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (!firstConnect) notifyAllInvalidated();
+                firstConnect = false;
+                backoffMs = 1000;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                long nextProbe = System.currentTimeMillis() + probeIntervalMs;
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(10_000);
+                    if (notifications != null) handle(notifications);
+                    // Waiting for notifications never fails on a half-open connection, a query has to get an
+                    // answer within the socket timeout; if not, this reconnects and invalidates everything
+                    if (System.currentTimeMillis() >= nextProbe) {
+                        try (Statement probe = connection.createStatement()) {
+                            probe.execute("SELECT 1");
+                        }
+                        nextProbe = System.currentTimeMillis() + probeIntervalMs;
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) return;
+                log.warn("Cache invalidation listener lost its connection, retrying in {} ms", backoffMs, e);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, 30_000);
+                firstConnect = false;
+            }
+        }
+    }
+
+    private Properties connectionProperties() {
+        Properties properties = new Properties();
+        String username = dataSourceProperties.determineUsername();
+        String password = dataSourceProperties.determinePassword();
+        if (username != null) properties.setProperty("user", username);
+        if (password != null) properties.setProperty("password", password);
+        properties.setProperty("tcpKeepAlive", "true");
+        // Reads only, the wait in getNotifications() sets its own timeout
+        properties.setProperty("socketTimeout", String.valueOf(SOCKET_TIMEOUT_SECONDS));
+        return properties;
+    }
+
+    private void handle(PGNotification[] notifications) {
+        Map<String, Set<Long>> byCache = new HashMap<>();
+        for (PGNotification notification : notifications) {
+            String payload = notification.getParameter();
+            int separator = payload.indexOf('|');
+            if (separator < 0 || payload.substring(0, separator).equals(nodeId)) continue;
+
+            for (String key : payload.substring(separator + 1).split(",")) {
+                int colon = key.indexOf(':');
+                if (colon < 0) continue;
+                try {
+                    byCache.computeIfAbsent(key.substring(0, colon), k -> new HashSet<>())
+                            .add(Long.parseLong(key.substring(colon + 1)));
+                } catch (NumberFormatException e) {
+                    log.debug("Ignoring malformed invalidation key {}", key);
+                }
+            }
+        }
+        byCache.forEach((cache, ids) -> {
+            for (CacheInvalidationListener listener : listeners) {
+                try {
+                    listener.onInvalidate(cache, ids);
+                } catch (Exception e) {
+                    log.warn("Cache invalidation listener failed for {}", cache, e);
+                }
+            }
+        });
+    }
+
+    private void notifyAllInvalidated() {
+        for (CacheInvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidateAll();
+            } catch (Exception e) {
+                log.warn("Full cache invalidation failed", e);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) return;
+        try {
+            connection.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
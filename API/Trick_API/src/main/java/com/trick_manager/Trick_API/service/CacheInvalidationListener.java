@@ -0,0 +1,15 @@
+package com.trick_manager.Trick_API.service;
+
+import java.util.Set;
+
+/**
+ * Receives invalidations published by other API instances through {@link CacheInvalidationBus}.
+ * Invalidations from the own instance are not delivered, local caches are updated directly.
+ */
+public interface CacheInvalidationListener {
+
+    void onInvalidate(String cache, Set<Long> ids);
+
+    // Called after the bus lost its connection and may have missed notifications
+    void onInvalidateAll();
+}
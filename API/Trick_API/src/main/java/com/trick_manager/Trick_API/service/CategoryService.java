@@ -4,8 +4,10 @@ import com.trick_manager.Trick_API.entity.Category;
 import com.trick_manager.Trick_API.repository.CategoryRepository;
 import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
 import com.trick_manager.Trick_API.repository.TrickRepository;
+import com.trick_manager.Trick_API.config.StaleOnFailure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
@@ -26,14 +28,20 @@ public class CategoryService {
         return categoryRepository.save(category);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Category> getAllCategories() {
         return categoryRepository.findAll();
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public Category getCategoryById(Long id) {
         return categoryRepository.findById(id).orElse(null);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getCategoryStatsForUser(Long userId) {
         List<Category> categories = categoryRepository.findAll();
 
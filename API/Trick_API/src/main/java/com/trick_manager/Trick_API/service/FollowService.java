@@ -0,0 +1,52 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.Follow;
+import com.trick_manager.Trick_API.repository.FollowRepository;
+import com.trick_manager.Trick_API.repository.LeaderboardProjection;
+import com.trick_manager.Trick_API.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class FollowService {
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Transactional
+    public void follow(Long followerId, Long followeeId) {
+        if (followerId.equals(followeeId)) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        if (!userRepository.existsById(followeeId)) {
+            throw new RuntimeException("User not found");
+        }
+        if (!followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId)) {
+            Follow follow = new Follow();
+            follow.setFollowerId(followerId);
+            follow.setFolloweeId(followeeId);
+            followRepository.save(follow);
+        }
+    }
+
+    @Transactional
+    public void unfollow(Long followerId, Long followeeId) {
+        followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaderboardProjection> getFollowing(Long userId) {
+        return followRepository.findFollowing(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<LeaderboardProjection> getFriendsLeaderboardData(Long userId, Long categoryId) {
+        return followRepository.getFriendsLeaderboardData(userId, categoryId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.Category;
+import com.trick_manager.Trick_API.entity.Trick;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+// Evicts second-level cache entries changed on another instance, before other listeners reload them
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class HibernateCacheInvalidator implements CacheInvalidationListener {
+
+    private static final String QUERY_REGION = "catalog-queries";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void onInvalidate(String cache, Set<Long> ids) {
+        Class<?> entity = switch (cache) {
+            case CacheInvalidationBus.TRICK -> Trick.class;
+            case CacheInvalidationBus.CATEGORY -> Category.class;
+            default -> null;
+        };
+        if (entity == null) return;
+
+        ids.forEach(id -> entityManagerFactory.getCache().evict(entity, id));
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        entityManagerFactory.getCache().evict(Trick.class);
+        entityManagerFactory.getCache().evict(Category.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+    }
+}
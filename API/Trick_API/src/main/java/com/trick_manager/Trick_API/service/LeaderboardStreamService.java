@@ -0,0 +1,340 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+import com.trick_manager.Trick_API.entity.OutboxEventType;
+import com.trick_manager.Trick_API.repository.LeaderboardRowProjection;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import com.trick_manager.Trick_API.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Pushes leaderboard changes over server-sent events. Completion events from the outbox only
+ * mark the affected leaderboards dirty; a scheduled flush recomputes each dirty leaderboard once per
+ * coalescing window and sends every subscriber just the rows whose rank or count changed.
+ * Emitters are async, so idle subscribers do not hold a request thread.
+ * <p>
+ * Writes happen on a dedicated sender pool, one queue per subscriber so its events stay in order, never on
+ * the shared scheduler. A subscriber with too many queued events or a write stuck longer than the send
+ * timeout has fallen behind and is dropped; the client reconnects and starts again with a snapshot.
+ */
+@Service
+public class LeaderboardStreamService implements OutboxProjection, CacheInvalidationListener {
+
+    // Key for the overall leaderboard (category ids start at 1)
+    private static final long ALL_CATEGORIES = 0L;
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    // Only one sender thread drains a subscriber's queue at a time (draining)
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final long key;
+        final Queue<Supplier<SseEmitter.SseEventBuilder>> queue = new ConcurrentLinkedQueue<>();
+        final AtomicInteger queued = new AtomicInteger();
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean dropped = new AtomicBoolean();
+        // Start of the running write, 0 while idle
+        final AtomicLong sendingSince = new AtomicLong();
+
+        Subscriber(SseEmitter emitter, long key) {
+            this.emitter = emitter;
+            this.key = key;
+        }
+    }
+
+    private record Row(Long id, String name, String username, String imageHash, long completedCount, int rank) {
+        // Versioned like on the profile card, loads without a token and stays cached until the image changes
+        String imageUrl() {
+            return imageHash == null ? null : "/api/users/profile/" + id + "/image?v=" + imageHash;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Value("${leaderboard.stream.send-threads:4}")
+    private int sendThreads;
+
+    @Value("${leaderboard.stream.max-queued-events:20}")
+    private int maxQueuedEvents;
+
+    @Value("${leaderboard.stream.send-timeout-ms:5000}")
+    private long sendTimeoutMs;
+
+    private ExecutorService sender;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Map<Long, Map<Long, Row>> snapshots = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyKeys = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        sender = Executors.newFixedThreadPool(sendThreads,
+                Thread.ofPlatform().name("leaderboard-stream-send-", 0).daemon().factory());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Long categoryId) {
+        long key = categoryId == null ? ALL_CATEGORIES : categoryId;
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(emitter, key);
+
+        emitter.onCompletion(() -> close(subscriber));
+        emitter.onTimeout(() -> close(subscriber));
+        emitter.onError(e -> close(subscriber));
+        subscribers.add(subscriber);
+
+        // The first event is the full ranking, everything after that are diffs (absolute values, so a diff
+        // already contained in the snapshot does no harm). Read on the sender pool: the request's
+        // EntityManager stays open as long as the stream, and would hold its connection just as long.
+        // Rows link the profile image instead of carrying it, every subscriber would get all images.
+        enqueue(subscriber, () -> {
+            Map<Long, Row> snapshot = toSnapshot(userRepository.getLeaderboardRows(categoryId));
+            snapshots.putIfAbsent(key, snapshot);
+            List<Map<String, Object>> rows = snapshot.values().stream()
+                    .sorted(Comparator.comparingInt(Row::rank).thenComparing(Row::id))
+                    .map(row -> {
+                        Map<String, Object> map = toMap(row);
+                        map.put("name", row.name());
+                        map.put("username", row.username());
+                        map.put("imageUrl", row.imageUrl());
+                        return map;
+                    })
+                    .toList();
+            return SseEmitter.event().name("snapshot").data(rows);
+        });
+        return emitter;
+    }
+
+    @Override
+    public String getProjectionName() {
+        return "leaderboard-stream";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        Set<Long> trickIds = new HashSet<>();
+        for (OutboxEvent event : events) {
+            if (event.getType() == OutboxEventType.TRICK_COMPLETED || event.getType() == OutboxEventType.TRICK_UNCOMPLETED) {
+                trickIds.add(event.getTrickId());
+            }
+        }
+        if (trickIds.isEmpty()) return;
+
+        Set<Long> keys = new HashSet<>();
+        keys.add(ALL_CATEGORIES);
+        trickRepository.findAllById(trickIds).forEach(trick -> keys.add(trick.getCategory().getId()));
+        markDirty(keys);
+    }
+
+    public void onUsersChanged() {
+        markDirty(new HashSet<>(snapshots.keySet()));
+    }
+
+    // Profile or account changes on another instance
+    @Override
+    public void onInvalidate(String cache, Set<Long> ids) {
+        if (CacheInvalidationBus.USER.equals(cache)) onUsersChanged();
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        onUsersChanged();
+    }
+
+    // Only mark after commit, otherwise a flush could read the old state and drop the change
+    private void markDirty(Set<Long> keys) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirtyKeys.addAll(keys);
+                }
+            });
+        } else {
+            dirtyKeys.addAll(keys);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${leaderboard.stream.coalesce-ms:500}")
+    public void flush() {
+        if (dirtyKeys.isEmpty()) return;
+
+        Set<Long> activeKeys = new HashSet<>();
+        subscribers.forEach(s -> activeKeys.add(s.key));
+        snapshots.keySet().retainAll(activeKeys);
+
+        for (Long key : new ArrayList<>(dirtyKeys)) {
+            dirtyKeys.remove(key);
+            if (!activeKeys.contains(key)) continue;
+
+            Map<Long, Row> previous = snapshots.getOrDefault(key, Map.of());
+            Map<Long, Row> current = toSnapshot(userRepository.getLeaderboardRows(key == ALL_CATEGORIES ? null : key));
+            snapshots.put(key, current);
+
+            Map<String, Object> diff = diff(previous, current);
+            if (diff == null) continue;
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.key == key) send(subscriber, SseEmitter.event().name("diff").data(diff));
+            }
+        }
+    }
+
+    // Keeps idle connections open behind proxies that drop silent streams
+    @Scheduled(fixedDelay = 25000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            send(subscriber, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    // A blocked write cannot be interrupted, but the subscriber gets nothing more and its queue is freed
+    @Scheduled(fixedDelayString = "${leaderboard.stream.send-timeout-ms:5000}")
+    public void dropStalled() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince.get();
+            if (since > 0 && now - since > sendTimeoutMs) drop(subscriber);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // Queues the event, the sender pool writes it
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        enqueue(subscriber, () -> event);
+    }
+
+    private void enqueue(Subscriber subscriber, Supplier<SseEmitter.SseEventBuilder> event) {
+        if (subscriber.dropped.get()) return;
+        if (subscriber.queued.incrementAndGet() > maxQueuedEvents) {
+            drop(subscriber);
+            return;
+        }
+        subscriber.queue.add(event);
+        if (subscriber.draining.compareAndSet(false, true)) sender.execute(() -> drain(subscriber));
+    }
+
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            Supplier<SseEmitter.SseEventBuilder> event;
+            while ((event = subscriber.queue.poll()) != null) {
+                subscriber.queued.decrementAndGet();
+                if (subscriber.dropped.get()) continue;
+                try {
+                    SseEmitter.SseEventBuilder built = event.get();
+                    subscriber.sendingSince.set(System.currentTimeMillis());
+                    subscriber.emitter.send(built);
+                } catch (IOException | RuntimeException e) {
+                    // Also a failed snapshot query, the client reconnects
+                    drop(subscriber);
+                } finally {
+                    subscriber.sendingSince.set(0);
+                }
+            }
+            if (subscriber.dropped.get()) {
+                // Here rather than in drop(): completing waits for a running write
+                subscriber.queue.clear();
+                try {
+                    subscriber.emitter.complete();
+                } catch (IllegalStateException e) {
+                    // already completed by the container
+                }
+            }
+            subscriber.draining.set(false);
+            // An event queued after the last poll but before draining was released
+            if (subscriber.queue.isEmpty() || !subscriber.draining.compareAndSet(false, true)) return;
+        }
+    }
+
+    // The emitter is done already, only queued events are left to discard
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.dropped.set(true);
+    }
+
+    private void drop(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        if (subscriber.dropped.compareAndSet(false, true) && subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private static Map<Long, Row> toSnapshot(List<LeaderboardRowProjection> ranking) {
+        Map<Long, Row> snapshot = new HashMap<>();
+        // Competition ranking: ties share a rank, so unrelated users do not shift on every change
+        int rank = 0;
+        long previousCount = -1;
+        for (int i = 0; i < ranking.size(); i++) {
+            LeaderboardRowProjection entry = ranking.get(i);
+            long count = entry.getCompletedCount() == null ? 0 : entry.getCompletedCount();
+            if (count != previousCount) {
+                rank = i + 1;
+                previousCount = count;
+            }
+            snapshot.put(entry.getId(), new Row(entry.getId(), entry.getName(), entry.getUsername(), entry.getImageHash(), count, rank));
+        }
+        return snapshot;
+    }
+
+    private static Map<String, Object> diff(Map<Long, Row> previous, Map<Long, Row> current) {
+        List<Map<String, Object>> changed = new ArrayList<>();
+        for (Row row : current.values()) {
+            Row old = previous.get(row.id());
+            boolean newImage = old != null && !Objects.equals(old.imageHash(), row.imageHash());
+            if (old != null && old.rank() == row.rank() && old.completedCount() == row.completedCount() && !newImage) continue;
+
+            Map<String, Object> map = toMap(row);
+            if (old == null) {
+                map.put("name", row.name());
+                map.put("username", row.username());
+            }
+            if (old == null || newImage) map.put("imageUrl", row.imageUrl());
+            changed.add(map);
+        }
+        List<Long> removed = previous.keySet().stream().filter(id -> !current.containsKey(id)).toList();
+        if (changed.isEmpty() && removed.isEmpty()) return null;
+
+        changed.sort(Comparator.comparingInt(m -> (Integer) m.get("rank")));
+        Map<String, Object> diff = new HashMap<>();
+        diff.put("changed", changed);
+        diff.put("removed", removed);
+        return diff;
+    }
+
+    private static Map<String, Object> toMap(Row row) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", row.id());
+        map.put("rank", row.rank());
+        map.put("completedCount", row.completedCount());
+        return map;
+    }
+}
@@ -0,0 +1,249 @@
+package com.trick_manager.Trick_API.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.trick_manager.Trick_API.entity.UserCompletionCount;
+import com.trick_manager.Trick_API.entity.UserLevel;
+import com.trick_manager.Trick_API.repository.UserCompletionCountRepository;
+import com.trick_manager.Trick_API.repository.UserLevelRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Levels and achievements from the rules in levels.json (level ids as in Database/User_Database/Level_Data.json).
+ * A user gets the last level whose requirements all hold. Evaluation reads the per-category completion
+ * counts and stores the result in user_levels, so profile reads are a single primary-key lookup.
+ * The rules are read once at startup and change with a deployment: all instances of a release run the
+ * same version, so they do not rewrite each other's rows.
+ */
+@Service
+public class LevelService {
+
+    private static final Logger log = LoggerFactory.getLogger(LevelService.class);
+
+    // categoryId null means all categories
+    record Requirement(Long categoryId, int minCompleted) {
+    }
+
+    record Level(int id, String name, List<Requirement> requirements) {
+    }
+
+    record Achievement(String id, String name, Requirement requirement) {
+    }
+
+    record Rules(List<Level> levels, List<Achievement> achievements) {
+    }
+
+    private record LoadedRules(Rules rules, String version, Map<Integer, Level> levelsById,
+                               Map<String, Achievement> achievementsById) {
+    }
+
+    @Autowired
+    private UserLevelRepository levelRepository;
+
+    @Autowired
+    private UserCompletionCountRepository completionCountRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Lazy: ProfileCardService, a listener of the bus, depends on this service
+    @Lazy
+    @Autowired
+    private ProfileCardService profileCardService;
+
+    @Lazy
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Value("${levels.rules-location:classpath:levels.json}")
+    private Resource rulesLocation;
+
+    @Value("${levels.reevaluate-batch-size:500}")
+    private int batchSize;
+
+    private volatile LoadedRules loaded;
+
+    @PostConstruct
+    void loadRules() {
+        byte[] bytes;
+        try (InputStream in = rulesLocation.getInputStream()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read level rules from " + rulesLocation, e);
+        }
+        Rules rules;
+        try {
+            rules = objectMapper.readValue(bytes, Rules.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid level rules in " + rulesLocation, e);
+        }
+        if (rules.levels() == null || rules.levels().isEmpty()) {
+            throw new IllegalStateException("No levels defined in " + rulesLocation);
+        }
+        List<Achievement> achievements = rules.achievements() == null ? List.of() : rules.achievements();
+        loaded = new LoadedRules(new Rules(rules.levels(), achievements), version(bytes),
+                rules.levels().stream().collect(Collectors.toMap(Level::id, l -> l)),
+                achievements.stream().collect(Collectors.toMap(Achievement::id, a -> a)));
+    }
+
+    public String getRulesVersion() {
+        return loaded.version();
+    }
+
+    // Level and achievements as stored, a user without a row has not completed anything yet
+    @Transactional(readOnly = true)
+    public Map<String, Object> getLevel(Long userId) {
+        LoadedRules current = loaded;
+        Optional<UserLevel> stored = levelRepository.findById(userId);
+
+        // Unknown ids (rules changed, re-evaluation still running) show as the first level
+        Level level = stored.map(row -> current.levelsById().get(row.getLevelId()))
+                .orElse(current.rules().levels().get(0));
+        List<Map<String, Object>> achievements = new ArrayList<>();
+        stored.ifPresent(row -> {
+            for (String id : split(row.getAchievements())) {
+                Achievement achievement = current.achievementsById().get(id);
+                if (achievement != null) achievements.add(Map.of("id", achievement.id(), "name", achievement.name()));
+            }
+        });
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("level", Map.of("id", level.id(), "name", level.name()));
+        result.put("achievements", achievements);
+        return result;
+    }
+
+    // Called in the transaction that changed the user's completion counts
+    @Transactional
+    public void evaluate(Long userId) {
+        evaluate(List.of(userId));
+    }
+
+    /**
+     * Re-evaluates every user whose row is missing or was evaluated with other rules, in batches of one
+     * transaction each. Returns the number of users evaluated.
+     */
+    public int reevaluateStale() {
+        String version = loaded.version();
+        int evaluated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> userIds = levelRepository.findUserIdsToEvaluate(version, afterId, batchSize);
+            if (userIds.isEmpty()) break;
+            transactionTemplate.executeWithoutResult(status -> {
+                // Changed rows are flushed as one JDBC batch instead of an UPDATE round trip each
+                entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+                evaluate(userIds);
+            });
+            evaluated += userIds.size();
+            afterId = userIds.get(userIds.size() - 1);
+        }
+        return evaluated;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reevaluateOnStartup() {
+        int evaluated = reevaluateStale();
+        if (evaluated > 0) log.info("Evaluated levels of {} users with rules {}", evaluated, loaded.version());
+    }
+
+    // Catches rows written by instances still running older rules during a rolling deployment
+    // (those rewrite rows to their version until they are replaced)
+    @Scheduled(cron = "${levels.reevaluate-cron:0 15 * * * *}")
+    public void scheduledReevaluation() {
+        reevaluateStale();
+    }
+
+    private void evaluate(Collection<Long> userIds) {
+        LoadedRules current = loaded;
+        // The row locks serialize concurrent evaluations of a user, so the counts read afterwards
+        // include every completion committed before
+        levelRepository.insertMissing(userIds, current.rules().levels().get(0).id());
+        List<UserLevel> rows = levelRepository.findByUserIdInOrderByUserId(userIds);
+
+        Map<Long, Map<Long, Integer>> countsByUser = new HashMap<>();
+        for (UserCompletionCount count : completionCountRepository.findByUserIdIn(userIds)) {
+            countsByUser.computeIfAbsent(count.getUserId(), k -> new HashMap<>())
+                    .put(count.getCategoryId(), count.getCompletedCount());
+        }
+
+        for (UserLevel row : rows) {
+            Map<Long, Integer> counts = countsByUser.getOrDefault(row.getUserId(), Map.of());
+            int total = counts.values().stream().mapToInt(Integer::intValue).sum();
+
+            Level level = current.rules().levels().get(0);
+            for (Level candidate : current.rules().levels()) {
+                if (matchesAll(candidate.requirements(), counts, total)) level = candidate;
+            }
+            String achievements = current.rules().achievements().stream()
+                    .filter(a -> matches(a.requirement(), counts, total))
+                    .map(Achievement::id)
+                    .collect(Collectors.joining(","));
+
+            // Cards show level and achievements, evicted after commit
+            boolean shown = !Objects.equals(row.getLevelId(), level.id()) || !achievements.equals(row.getAchievements());
+            if (shown) {
+                profileCardService.evict(row.getUserId());
+                invalidationBus.publish(CacheInvalidationBus.PROFILE, row.getUserId());
+            }
+            // Managed entities, only changed rows are flushed
+            if (shown || !current.version().equals(row.getRulesVersion())) {
+                row.setLevelId(level.id());
+                row.setAchievements(achievements);
+                row.setRulesVersion(current.version());
+                row.setUpdatedAt(LocalDateTime.now());
+            }
+        }
+    }
+
+    private static boolean matchesAll(List<Requirement> requirements, Map<Long, Integer> counts, int total) {
+        if (requirements == null) return true;
+        return requirements.stream().allMatch(r -> matches(r, counts, total));
+    }
+
+    private static boolean matches(Requirement requirement, Map<Long, Integer> counts, int total) {
+        int count = requirement.categoryId() == null ? total : counts.getOrDefault(requirement.categoryId(), 0);
+        return count >= requirement.minCompleted();
+    }
+
+    private static List<String> split(String ids) {
+        return ids == null || ids.isEmpty() ? List.of() : List.of(ids.split(","));
+    }
+
+    private static String version(byte[] rules) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(rules)).substring(0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+import com.trick_manager.Trick_API.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox into all {@link OutboxProjection} beans in batches, ordered by {@link Position}.
+ * Each projection has its own in-memory cursor on every instance, which is only advanced after a batch
+ * was handled (at-least-once delivery).
+ */
+@Service
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    // Read order of the outbox: inserting transaction first, event id within it
+    public record Position(long txId, long eventId) implements Comparable<Position> {
+
+        public static Position of(OutboxEvent event) {
+            return new Position(event.getTxId(), event.getId());
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int byTx = Long.compare(txId, other.txId);
+            return byTx != 0 ? byTx : Long.compare(eventId, other.eventId);
+        }
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Autowired
+    private List<OutboxProjection> projections;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${outbox.retention-days:30}")
+    private int retentionDays;
+
+    private final Map<String, Position> cursors = new ConcurrentHashMap<>();
+    // Highest event id each projection has handled, for the lag (approximate: ids are not read in order)
+    private final Map<String, AtomicLong> checkpoints = new ConcurrentHashMap<>();
+    private final AtomicLong latestEventId = new AtomicLong();
+    private boolean started;
+
+    @PostConstruct
+    void registerMetrics() {
+        for (OutboxProjection projection : projections) {
+            AtomicLong checkpoint = checkpoints.computeIfAbsent(projection.getProjectionName(), k -> new AtomicLong());
+            Gauge.builder("outbox.lag.events", () -> Math.max(0, latestEventId.get() - checkpoint.get()))
+                    .tag("projection", projection.getProjectionName())
+                    .description("Outbox events not yet handled by the projection")
+                    .register(meterRegistry);
+        }
+    }
+
+    // Not in @PostConstruct: the AppCDS training run refreshes the context without a database.
+    // Published before ApplicationReadyEvent, so the cursors start before the projections' startup rebuild.
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (started) return;
+        // Events of finished transactions are covered by the projections' startup rebuild
+        Position start = new Position(outboxRepository.findVisibleHorizon(), 0);
+        long latest = outboxRepository.findMaxId();
+        latestEventId.set(latest);
+        for (OutboxProjection projection : projections) cursors.put(projection.getProjectionName(), start);
+        checkpoints.values().forEach(checkpoint -> checkpoint.set(latest));
+        started = true;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-interval-ms:250}")
+    public synchronized void dispatch() {
+        if (!started) return;
+        latestEventId.set(outboxRepository.findMaxId());
+        for (OutboxProjection projection : projections) {
+            try {
+                drain(projection);
+            } catch (Exception e) {
+                // Checkpoint stays where it is, the batch is retried on the next run
+                log.warn("Outbox projection {} failed", projection.getProjectionName(), e);
+                Counter.builder("outbox.dispatch.failures").tag("projection", projection.getProjectionName())
+                        .register(meterRegistry).increment();
+            }
+        }
+    }
+
+    private void drain(OutboxProjection projection) {
+        String name = projection.getProjectionName();
+        List<OutboxEvent> batch;
+        do {
+            Position cursor = cursors.get(name);
+            batch = outboxRepository.findBatch(cursor.txId(), cursor.eventId(), batchSize);
+            if (batch.isEmpty()) break;
+
+            projection.handle(batch);
+            cursors.put(name, Position.of(batch.get(batch.size() - 1)));
+            long maxId = batch.stream().mapToLong(OutboxEvent::getId).max().getAsLong();
+            checkpoints.get(name).accumulateAndGet(maxId, Math::max);
+            countDispatched(projection, batch.size());
+        } while (batch.size() == batchSize);
+    }
+
+    private void countDispatched(OutboxProjection projection, int events) {
+        Counter.builder("outbox.events.dispatched").tag("projection", projection.getProjectionName())
+                .register(meterRegistry).increment(events);
+    }
+
+    // Rebuilds a projection from the source tables, on this instance only
+    public synchronized boolean replay(String projectionName) {
+        Optional<OutboxProjection> projection = projections.stream()
+                .filter(p -> p.getProjectionName().equals(projectionName))
+                .findFirst();
+        projection.ifPresent(OutboxProjection::reset);
+        return projection.isPresent();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("latestEventId", latestEventId.get());
+        Map<String, Object> lag = new TreeMap<>();
+        checkpoints.forEach((name, checkpoint) -> lag.put(name, Math.max(0, latestEventId.get() - checkpoint.get())));
+        status.put("lag", lag);
+        return status;
+    }
+
+    // Keeps the outbox bounded; projections rebuild from the source tables and need no old events
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 3 * * *}")
+    public void cleanup() {
+        if (retentionDays <= 0) return;
+        outboxRepository.deleteCreatedBefore(LocalDateTime.now().minusDays(retentionDays));
+    }
+}
@@ -0,0 +1,23 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Consumer of outbox events, fed in {@link OutboxDispatcher.Position} order by {@link OutboxDispatcher}.
+ * Delivery is at-least-once, so handling the same event twice must be harmless.
+ * <p>
+ * Projections live in memory on every instance, so each instance reads every event with a cursor of
+ * its own, starting at the latest event on startup: their state is built from the source tables.
+ */
+public interface OutboxProjection {
+
+    String getProjectionName();
+
+    void handle(List<OutboxEvent> events);
+
+    // Called by a replay, rebuilds the state from the source tables
+    default void reset() {
+    }
+}
@@ -0,0 +1,46 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+import com.trick_manager.Trick_API.entity.OutboxEventType;
+import com.trick_manager.Trick_API.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class OutboxService {
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    // MANDATORY: an event must commit or roll back together with the change it describes
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Long userId, Long trickId, Long goalId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setUserId(userId);
+        event.setTrickId(trickId);
+        event.setGoalId(goalId);
+        outboxRepository.save(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(OutboxEventType type, Long userId, Long trickId) {
+        append(type, userId, trickId, null);
+    }
+
+    // The previous completions go into the event, read at dispatch time they would already include later ones
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendCompletion(Long userId, Long trickId, List<Long> previousTrickIds) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(OutboxEventType.TRICK_COMPLETED);
+        event.setUserId(userId);
+        event.setTrickId(trickId);
+        event.setPreviousTrickIds(previousTrickIds.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        outboxRepository.save(event);
+    }
+}
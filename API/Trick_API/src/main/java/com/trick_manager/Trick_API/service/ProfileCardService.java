@@ -0,0 +1,214 @@
+package com.trick_manager.Trick_API.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.trick_manager.Trick_API.entity.UserCompletionCount;
+import com.trick_manager.Trick_API.repository.ProfileCardProjection;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import com.trick_manager.Trick_API.repository.UserCompletionCountRepository;
+import com.trick_manager.Trick_API.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Public profile cards: name, image URL, level, completion totals per category and the latest completions.
+ * Built from the maintained aggregates (user_completion_counts, user_levels) without loading the profile
+ * image, and kept in a bounded cache. Completions, profile and level changes evict the user's card here and,
+ * through {@link CacheInvalidationBus}, on the other instances. Changed tricks evict the cards listing them.
+ */
+@Service
+public class ProfileCardService implements CacheInvalidationListener {
+
+    // ETag is a hash of the card, imageHash versions the image URL
+    public record Card(Map<String, Object> body, String etag, String imageHash) {
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCompletionCountRepository completionCountRepository;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${profile-card.cache-size:10000}")
+    private long cacheSize;
+
+    // Upper bound for a card built from a lagging replica right after an eviction
+    @Value("${profile-card.max-age-ms:300000}")
+    private long maxAgeMs;
+
+    @Value("${profile-card.recent-completions:5}")
+    private int recentCompletions;
+
+    private Cache<Long, Card> cards;
+    private TransactionTemplate readOnlyTransaction;
+
+    @PostConstruct
+    void init() {
+        cards = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(maxAgeMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "profile-cards");
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public Optional<Card> getCard(Long userId) {
+        // Loads of the same card are serialized with evict(), which waits for a running load and drops it.
+        // Unknown users (null) are not cached.
+        return Optional.ofNullable(cards.get(userId, id -> readOnlyTransaction.execute(status -> build(id))));
+    }
+
+    // Decoded profile image, as stored by UserService.updateProfileImage (base64, optionally as data URL)
+    public Optional<byte[]> getImage(Long userId) {
+        return userRepository.findProfileImageById(userId).map(ProfileCardService::decodeImage);
+    }
+
+    // Only the image with this hash, without building the card
+    public Optional<byte[]> getImage(Long userId, String imageHash) {
+        return userRepository.findProfileImageByIdAndHash(userId, imageHash).map(ProfileCardService::decodeImage);
+    }
+
+    private static byte[] decodeImage(String image) {
+        int comma = image.indexOf(',');
+        return Base64.getMimeDecoder().decode(comma >= 0 ? image.substring(comma + 1) : image);
+    }
+
+    public static MediaType imageType(byte[] image) {
+        if (image.length > 3 && image[0] == (byte) 0x89 && image[1] == 'P' && image[2] == 'N' && image[3] == 'G') {
+            return MediaType.IMAGE_PNG;
+        }
+        if (image.length > 2 && image[0] == 'G' && image[1] == 'I' && image[2] == 'F') return MediaType.IMAGE_GIF;
+        if (image.length > 11 && image[8] == 'W' && image[9] == 'E' && image[10] == 'B' && image[11] == 'P') {
+            return MediaType.parseMediaType("image/webp");
+        }
+        return MediaType.IMAGE_JPEG;
+    }
+
+    // Local eviction after commit, callers publish PROFILE (or USER) for the other instances
+    public void evict(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cards.invalidate(userId);
+                }
+            });
+        } else {
+            cards.invalidate(userId);
+        }
+    }
+
+    // Local eviction of the cards whose recent completions show one of the tricks (renamed, moved or deleted)
+    public void evictTrick(Long trickId) {
+        cards.asMap().values().removeIf(card -> showsTrick(card, Set.of(trickId)));
+    }
+
+    @Override
+    public void onInvalidate(String cache, Set<Long> ids) {
+        if (CacheInvalidationBus.PROFILE.equals(cache) || CacheInvalidationBus.USER.equals(cache)) {
+            cards.invalidateAll(ids);
+        } else if (CacheInvalidationBus.TRICK.equals(cache)) {
+            cards.asMap().values().removeIf(card -> showsTrick(card, ids));
+        }
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        cards.invalidateAll();
+    }
+
+    private Card build(Long userId) {
+        ProfileCardProjection user = userRepository.findProfileCardById(userId).orElse(null);
+        if (user == null) return null;
+
+        List<Map<String, Object>> byCategory = new ArrayList<>();
+        int total = 0;
+        List<UserCompletionCount> counts = new ArrayList<>(completionCountRepository.findByUserId(userId));
+        counts.sort(Comparator.comparing(UserCompletionCount::getCategoryId));
+        for (UserCompletionCount count : counts) {
+            if (count.getCompletedCount() == 0) continue;
+            Map<String, Object> category = new LinkedHashMap<>();
+            category.put("categoryId", count.getCategoryId());
+            category.put("count", count.getCompletedCount());
+            byCategory.add(category);
+            total += count.getCompletedCount();
+        }
+
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (Map<String, Object> row : trickRepository.findRecentCompletionsByUserId(userId, recentCompletions)) {
+            Map<String, Object> completion = new LinkedHashMap<>();
+            completion.put("id", row.get("id"));
+            completion.put("name", row.get("name"));
+            completion.put("categoryId", row.get("category_id"));
+            completion.put("completedAt", row.get("created_at"));
+            recent.add(completion);
+        }
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("id", user.getId());
+        body.put("name", user.getName());
+        body.put("username", user.getUsername());
+        body.put("imageUrl", user.getImageHash() == null ? null
+                : "/api/users/profile/" + user.getId() + "/image?v=" + user.getImageHash());
+        body.putAll(levelService.getLevel(userId));
+        body.put("completedTotal", total);
+        body.put("completedByCategory", byCategory);
+        body.put("recentCompletions", recent);
+
+        return new Card(Collections.unmodifiableMap(body), etag(body), user.getImageHash());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static boolean showsTrick(Card card, Set<Long> trickIds) {
+        for (Map<String, Object> completion : (List<Map<String, Object>>) card.body().get("recentCompletions")) {
+            if (completion.get("id") instanceof Number id && trickIds.contains(id.longValue())) return true;
+        }
+        return false;
+    }
+
+    private String etag(Map<String, Object> body) {
+        try {
+            // Sorted keys: Map.of iteration order differs between JVMs, the ETag must not
+            byte[] json = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS).writeValueAsBytes(body);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            // Weak: the same card is also sent as CBOR and gzipped
+            return "W/\"" + HexFormat.of().formatHex(digest, 0, 12) + "\"";
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.UserDailyProgress;
+import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
+import com.trick_manager.Trick_API.repository.UserCompletionCountRepository;
+import com.trick_manager.Trick_API.repository.UserDailyProgressRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.function.Function;
+
+@Service
+public class ProgressService {
+
+    @Autowired
+    private UserDailyProgressRepository progressRepository;
+
+    @Autowired
+    private UserCompletionCountRepository completionCountRepository;
+
+    @Autowired
+    private CompletedTrickRepository completedRepository;
+
+    public void recordCompletion(Long userId, Long trickId, LocalDate day, int delta) {
+        progressRepository.addCompletions(userId, trickId, day, delta);
+        completionCountRepository.addCompletions(userId, trickId, delta);
+    }
+
+    // Backfill for completions recorded before the aggregates existed, runs before the level evaluation reads them
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillIfEmpty() {
+        if (completedRepository.count() == 0) return;
+        if (progressRepository.count() == 0) backfillDailyProgress();
+        if (completionCountRepository.count() == 0) backfillCompletionCounts();
+    }
+
+    @Transactional
+    public void backfill() {
+        backfillDailyProgress();
+        backfillCompletionCounts();
+    }
+
+    @Transactional
+    public void backfillDailyProgress() {
+        progressRepository.deleteAllRows();
+        progressRepository.backfillFromCompletedTricks();
+    }
+
+    @Transactional
+    public void backfillCompletionCounts() {
+        completionCountRepository.deleteAllRows();
+        completionCountRepository.backfillFromCompletedTricks();
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getProgress(Long userId) {
+        List<UserDailyProgress> rows = progressRepository.findByUserIdOrderByDayAsc(userId);
+
+        TreeMap<LocalDate, Integer> daily = new TreeMap<>();
+        Map<Long, Integer> perCategory = new TreeMap<>();
+        for (UserDailyProgress row : rows) {
+            if (row.getCompletedCount() <= 0) continue;
+            daily.merge(row.getDay(), row.getCompletedCount(), Integer::sum);
+            perCategory.merge(row.getCategoryId(), row.getCompletedCount(), Integer::sum);
+        }
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("daily", buckets(daily, Function.identity()));
+        progress.put("weekly", buckets(daily, day -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))));
+        progress.put("monthly", buckets(daily, day -> day.withDayOfMonth(1)));
+        progress.put("categories", perCategory.entrySet().stream().map(e -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("category_id", e.getKey());
+            map.put("count", e.getValue());
+            return map;
+        }).toList());
+        progress.put("currentStreak", currentStreak(daily.navigableKeySet()));
+        progress.put("longestStreak", longestStreak(daily.navigableKeySet()));
+        return progress;
+    }
+
+    private List<Map<String, Object>> buckets(TreeMap<LocalDate, Integer> daily, Function<LocalDate, LocalDate> periodStart) {
+        TreeMap<LocalDate, Integer> periods = new TreeMap<>();
+        daily.forEach((day, count) -> periods.merge(periodStart.apply(day), count, Integer::sum));
+        return periods.entrySet().stream().map(e -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("period", e.getKey().toString());
+            map.put("count", e.getValue());
+            return map;
+        }).toList();
+    }
+
+    // A streak is still current if the last active day was today or yesterday
+    private int currentStreak(NavigableSet<LocalDate> days) {
+        LocalDate today = LocalDate.now();
+        LocalDate day = days.contains(today) ? today : today.minusDays(1);
+        int streak = 0;
+        while (days.contains(day)) {
+            streak++;
+            day = day.minusDays(1);
+        }
+        return streak;
+    }
+
+    private int longestStreak(NavigableSet<LocalDate> days) {
+        int longest = 0;
+        int streak = 0;
+        LocalDate previous = null;
+        for (LocalDate day : days) {
+            streak = (previous != null && previous.plusDays(1).equals(day)) ? streak + 1 : 1;
+            longest = Math.max(longest, streak);
+            previous = day;
+        }
+        return longest;
+    }
+}
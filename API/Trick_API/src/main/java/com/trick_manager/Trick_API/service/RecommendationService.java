@@ -0,0 +1,216 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEvent;
+import com.trick_manager.Trick_API.entity.OutboxEventType;
+import com.trick_manager.Trick_API.entity.Trick;
+import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
+import com.trick_manager.Trick_API.repository.OutboxEventRepository;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import com.trick_manager.Trick_API.repository.WishlistTrickRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "Next tricks to learn": scores tricks by what other skaters completed after the tricks
+ * the user already has, based on a precomputed {@link TrickTransitionMatrix}.
+ */
+@Service
+public class RecommendationService implements OutboxProjection {
+
+    // A completion counts as "learned after" each of the user's previous N completions
+    private static final int TRANSITION_WINDOW = 5;
+    private static final int REBUILD_USER_BATCH = 1000;
+
+    @Autowired
+    private CompletedTrickRepository completedRepository;
+
+    @Autowired
+    private WishlistTrickRepository wishlistRepository;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile TrickTransitionMatrix matrix = new TrickTransitionMatrix();
+    // Last outbox event applied to the matrix or covered by the last rebuild, guarded by lock.
+    // Events arrive in position order, so anything at or below it is a redelivery.
+    private OutboxDispatcher.Position applied = new OutboxDispatcher.Position(0, 0);
+    // Events handled while a rebuild reads completed_tricks, applied to the new matrix as well; guarded by lock
+    private List<OutboxEvent> handledDuringRebuild;
+
+    @Override
+    public String getProjectionName() {
+        return "recommendations";
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        lock.writeLock().lock();
+        try {
+            for (OutboxEvent event : events) {
+                OutboxDispatcher.Position position = OutboxDispatcher.Position.of(event);
+                if (position.compareTo(applied) <= 0) continue;
+                applied = position;
+                apply(matrix, event);
+                if (handledDuringRebuild != null) handledDuringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Replay rebuilds from completed_tricks, the outbox only holds the retained events
+    @Override
+    public void reset() {
+        rebuild();
+    }
+
+    // Predecessors of a completion about to be saved, stored in its TRICK_COMPLETED event
+    public List<Long> findPreviousTrickIds(Long userId) {
+        return completedRepository.findRecentTrickIdsByUserId(userId, PageRequest.of(0, TRANSITION_WINDOW));
+    }
+
+    private static void apply(TrickTransitionMatrix matrix, OutboxEvent event) {
+        // A completion stored without a trick id has nothing to count
+        if (event.getType() != OutboxEventType.TRICK_COMPLETED || event.getTrickId() == null) return;
+        Long trickId = event.getTrickId();
+        matrix.recordCompletion(trickId);
+        // Events written before previous_trick_ids existed only count the completion
+        if (event.getPreviousTrickIds() == null || event.getPreviousTrickIds().isEmpty()) return;
+        Arrays.stream(event.getPreviousTrickIds().split(","))
+                .map(Long::valueOf)
+                .filter(id -> !id.equals(trickId))
+                .limit(TRANSITION_WINDOW)
+                .forEach(id -> matrix.recordTransition(id, trickId));
+    }
+
+    // Full rebuild, also corrects for removed completions which are not applied incrementally
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${recommendations.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${recommendations.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            handledDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            // Before reading completed_tricks: events of transactions older than this are reflected in it
+            OutboxDispatcher.Position covered = new OutboxDispatcher.Position(outboxRepository.findVisibleHorizon(), 0);
+            swap(build(), covered);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                handledDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private TrickTransitionMatrix build() {
+        TrickTransitionMatrix rebuilt = new TrickTransitionMatrix();
+        Long maxUserId = completedRepository.findMaxUserId();
+
+        for (long from = 0; maxUserId != null && from < maxUserId; from += REBUILD_USER_BATCH) {
+            Long currentUser = null;
+            Deque<Long> window = new ArrayDeque<>();
+            for (Object[] row : completedRepository.findUserTrickPairsInUserRange(from, from + REBUILD_USER_BATCH)) {
+                Long userId = (Long) row[0];
+                Long trickId = (Long) row[1];
+                if (!userId.equals(currentUser)) {
+                    currentUser = userId;
+                    window.clear();
+                }
+                rebuilt.recordCompletion(trickId);
+                for (Long previous : window) rebuilt.recordTransition(previous, trickId);
+                window.addFirst(trickId);
+                if (window.size() > TRANSITION_WINDOW) window.removeLast();
+            }
+        }
+
+        return rebuilt;
+    }
+
+    // Events handled meanwhile may be missing from completed_tricks as read, a completion
+    // counted twice only nudges the scores
+    private void swap(TrickTransitionMatrix rebuilt, OutboxDispatcher.Position covered) {
+        lock.writeLock().lock();
+        try {
+            for (OutboxEvent event : handledDuringRebuild) {
+                if (OutboxDispatcher.Position.of(event).compareTo(covered) > 0) apply(rebuilt, event);
+            }
+            matrix = rebuilt;
+            if (covered.compareTo(applied) > 0) applied = covered;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getRecommendations(Long userId, int limit) {
+        List<Long> completed = completedRepository.findRecentTrickIdsByUserId(userId, Pageable.unpaged());
+        Set<Long> excluded = new HashSet<>(completed);
+        excluded.addAll(wishlistRepository.findTrickIdsByUserId(userId));
+
+        Map<Long, Double> top = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            TrickTransitionMatrix m = matrix;
+            double[] scores = new double[m.size()];
+            // Recent completions say most about what comes next
+            for (int i = 0; i < completed.size(); i++) {
+                Integer index = m.indexOf(completed.get(i));
+                if (index != null) m.accumulateSuccessors(index, 1.0 / (i + 1), scores);
+            }
+            // Cold start: fall back to overall popularity
+            boolean empty = Arrays.stream(scores).noneMatch(s -> s > 0);
+            if (empty) {
+                for (int i = 0; i < scores.length; i++) scores[i] = m.completionCountAt(i);
+            }
+
+            PriorityQueue<Integer> best = new PriorityQueue<>(Comparator.comparingDouble(i -> scores[i]));
+            for (int i = 0; i < scores.length; i++) {
+                if (scores[i] <= 0 || excluded.contains(m.trickIdAt(i))) continue;
+                best.add(i);
+                if (best.size() > limit) best.poll();
+            }
+            List<Integer> ranked = new ArrayList<>(best);
+            ranked.sort(Comparator.comparingDouble((Integer i) -> scores[i]).reversed());
+            ranked.forEach(i -> top.put(m.trickIdAt(i), scores[i]));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<Long, Trick> tricks = trickRepository.findAllById(top.keySet()).stream()
+                .collect(Collectors.toMap(Trick::getId, Function.identity()));
+
+        return top.entrySet().stream()
+                .filter(e -> tricks.containsKey(e.getKey()))
+                .map(e -> {
+                    Trick trick = tricks.get(e.getKey());
+                    Map<String, Object> map = new HashMap<>();
+                    map.put("id", trick.getId());
+                    map.put("name", trick.getName());
+                    map.put("category_id", trick.getCategory().getId());
+                    map.put("score", e.getValue());
+                    return map;
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,66 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.config.JwtUtils;
+import com.trick_manager.Trick_API.entity.RefreshToken;
+import com.trick_manager.Trick_API.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class RefreshTokenService {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Transactional
+    public String createRefreshToken(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        // Housekeeping: drop this user's expired tokens instead of running a separate cleanup job
+        refreshTokenRepository.deleteByUserIdAndExpiresAtBefore(userId, now);
+
+        String rawToken = jwtUtils.generateRefreshToken();
+        RefreshToken token = new RefreshToken();
+        token.setUserId(userId);
+        token.setTokenHash(jwtUtils.hashToken(rawToken));
+        token.setExpiresAt(now.plusNanos(jwtUtils.getRefreshExpirationMs() * 1_000_000L));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    /**
+     * Rotates a refresh token: the presented token is deleted and can never be used again.
+     * Returns the owning user id if the token was valid.
+     */
+    @Transactional
+    public Optional<Long> consume(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return Optional.empty();
+
+        String tokenHash = jwtUtils.hashToken(rawToken);
+        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(tokenHash);
+        if (tokenOpt.isEmpty()) return Optional.empty();
+
+        // Only the request that actually deleted the row may use the token, a concurrent refresh gets empty
+        if (refreshTokenRepository.deleteByTokenHash(tokenHash) != 1) return Optional.empty();
+        RefreshToken token = tokenOpt.get();
+        if (token.getExpiresAt().isBefore(LocalDateTime.now())) return Optional.empty();
+        return Optional.of(token.getUserId());
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) return;
+        refreshTokenRepository.deleteByTokenHash(jwtUtils.hashToken(rawToken));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.deleteByUserId(userId);
+    }
+}
@@ -0,0 +1,154 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.dto.ReplayMutation;
+import com.trick_manager.Trick_API.entity.SessionGoal;
+import com.trick_manager.Trick_API.entity.User;
+import com.trick_manager.Trick_API.repository.IdempotencyKeyRepository;
+import com.trick_manager.Trick_API.repository.MutationClockRepository;
+import com.trick_manager.Trick_API.repository.SessionGoalRepository;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Applies a batch of mutations the client queued while offline, in order and in one transaction.
+ * Retried mutations are recognized by their idempotency key and answered with the first result;
+ * conflicting writes are resolved last-writer-wins on the client timestamp.
+ *
+ * Result status per item: applied, stale (a newer write won), duplicate or rejected.
+ * Invalid items are rejected without an exception so the rest of the batch still commits.
+ */
+@Service
+public class ReplayService {
+
+    public static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    @Autowired
+    private TrickActionService trickActionService;
+
+    @Autowired
+    private SessionGoalService sessionGoalService;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private SessionGoalRepository goalRepository;
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    @Autowired
+    private MutationClockRepository clockRepository;
+
+    @Value("${replay.idempotency-ttl-hours:72}")
+    private long idempotencyTtlHours;
+
+    // Longest accepted offline period, also how long mutation clocks are kept
+    @Value("${replay.max-offline-days:30}")
+    private long maxOfflineDays;
+
+    @Transactional
+    public List<Map<String, Object>> replay(User user, List<ReplayMutation> mutations) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Map<String, Object>> results = new ArrayList<>(mutations.size());
+
+        for (ReplayMutation mutation : mutations) {
+            String key = mutation.getIdempotencyKey();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("idempotencyKey", key);
+            results.add(result);
+
+            if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+                result.put("status", "rejected");
+                result.put("error", "idempotencyKey missing or longer than " + MAX_KEY_LENGTH);
+                continue;
+            }
+
+            if (idempotencyKeyRepository.claim(user.getId(), key, now) == 0) {
+                result.put("status", "duplicate");
+                result.put("originalStatus", idempotencyKeyRepository.findStatus(user.getId(), key).orElse(null));
+                continue;
+            }
+
+            String error = validate(user, mutation);
+            String status = error != null ? "rejected" : apply(user, mutation, modifiedAt(mutation, now)) ? "applied" : "stale";
+            idempotencyKeyRepository.setStatus(user.getId(), key, status);
+
+            result.put("status", status);
+            if (error != null) result.put("error", error);
+        }
+
+        return results;
+    }
+
+    // Client clocks ahead of the server would block every later write, so they are capped at now.
+    // Older than the offline window they are raised to its start: clocks before it are already removed,
+    // so such a write can only be ordered against writes inside the window.
+    private LocalDateTime modifiedAt(ReplayMutation mutation, LocalDateTime now) {
+        LocalDateTime clientTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(mutation.getClientTimestamp()), ZoneId.systemDefault());
+        LocalDateTime windowStart = now.minusDays(maxOfflineDays);
+        if (clientTime.isAfter(now)) return now;
+        return clientTime.isBefore(windowStart) ? windowStart : clientTime;
+    }
+
+    private String validate(User user, ReplayMutation mutation) {
+        if (mutation.getOp() == null) return "op missing";
+        if (mutation.getClientTimestamp() == null) return "clientTimestamp missing";
+
+        switch (mutation.getOp()) {
+            case "wishlist.add", "wishlist.remove", "completed.add", "completed.remove" -> {
+                if (mutation.getTrick_id() == null || !trickRepository.existsById(mutation.getTrick_id())) {
+                    return "Trick not found";
+                }
+            }
+            case "goal.update" -> {
+                SessionGoal details = mutation.getGoal();
+                if (details == null || details.getId() == null) return "goal missing";
+                Optional<SessionGoal> goal = goalRepository.findById(details.getId());
+                if (goal.isEmpty() || !goal.get().getUser().getId().equals(user.getId())) {
+                    return "Goal not found";
+                }
+            }
+            default -> {
+                return "Unknown op " + mutation.getOp();
+            }
+        }
+        return null;
+    }
+
+    private boolean apply(User user, ReplayMutation mutation, LocalDateTime modifiedAt) {
+        Long trickId = mutation.getTrick_id();
+        return switch (mutation.getOp()) {
+            case "wishlist.add" -> trickActionService.addToWishlist(user.getId(), trickId, modifiedAt);
+            case "wishlist.remove" -> trickActionService.removeFromWishlist(user.getId(), trickId, modifiedAt);
+            case "completed.add" -> trickActionService.addToCompleted(user.getId(), trickId, modifiedAt);
+            case "completed.remove" -> trickActionService.removeFromCompleted(user.getId(), trickId, modifiedAt);
+            case "goal.update" -> sessionGoalService
+                    .updateGoal(mutation.getGoal().getId(), mutation.getGoal(), user.getUsername(), modifiedAt)
+                    .isPresent();
+            default -> throw new IllegalStateException("Unknown op " + mutation.getOp());
+        };
+    }
+
+    // TTL eviction, a client retrying after that applies the mutation again (still guarded by last-writer-wins)
+    @Scheduled(cron = "${replay.idempotency-cleanup-cron:0 15 * * * *}")
+    public void evictExpiredKeys() {
+        idempotencyKeyRepository.deleteOlderThan(LocalDateTime.now().minusHours(idempotencyTtlHours));
+    }
+
+    // Clocks older than the offline window can no longer decide a conflict, see modifiedAt()
+    @Scheduled(cron = "${replay.clock-cleanup-cron:0 45 3 * * *}")
+    public void evictExpiredClocks() {
+        clockRepository.deleteOlderThan(LocalDateTime.now().minusDays(maxOfflineDays));
+    }
+}
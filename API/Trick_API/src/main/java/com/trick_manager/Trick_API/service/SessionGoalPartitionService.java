@@ -0,0 +1,160 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.repository.SessionGoalArchiveRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps session_goals range-partitioned by month on created_at (session_goals_pYYYYMM plus a default
+ * partition). Hibernate only knows the parent table, so partitions are created here, a few months ahead.
+ * Completed goals older than archive-after-days are folded into session_goal_archive and partitions
+ * that are empty afterwards are dropped, so the table only holds recent history. Open goals stay where they
+ * are; a partial index per partition finds them without reading the completed rows.
+ */
+@Service
+public class SessionGoalPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionGoalPartitionService.class);
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SessionGoalArchiveRepository archiveRepository;
+
+    // Converts an existing plain table on startup. Only on in the one-off schema profile run: the conversion
+    // takes an exclusive lock and copies the table, regular instances starting in parallel must not do it.
+    @Value("${session-goals.partitioning.migrate:false}")
+    private boolean migrate;
+
+    @Value("${session-goals.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${session-goals.archive-after-days:90}")
+    private int archiveAfterDays;
+
+    // After the schema update, so the parent table exists on a fresh database
+    @EventListener(ContextRefreshedEvent.class)
+    public void onStartup() {
+        try {
+            String kind = jdbcTemplate.queryForObject(
+                    "SELECT CAST(c.relkind AS text) FROM pg_class c WHERE c.oid = to_regclass('session_goals')", String.class);
+            if ("r".equals(kind)) {
+                if (!migrate) {
+                    log.warn("session_goals is not partitioned, run the schema profile once to convert it");
+                    return;
+                }
+                transactionTemplate.executeWithoutResult(status -> migrateToPartitioned());
+            }
+            if (kind != null) createPartitions(YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+            // Building it locks every partition against writes, so also only in the schema run; new
+            // partitions inherit it
+            if (kind != null && migrate) {
+                jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_session_goals_open ON session_goals (user_id, created_at) " +
+                        "WHERE is_completed = false");
+            }
+        } catch (DataAccessException e) {
+            log.warn("session_goals partition check failed", e);
+        }
+    }
+
+    @Scheduled(cron = "${session-goals.maintenance-cron:0 0 4 * * *}")
+    public void maintain() {
+        createPartitions(YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+        long archived = archive();
+        int dropped = dropEmptyPartitionsBefore(YearMonth.from(LocalDate.now().minusDays(archiveAfterDays)));
+        log.info("Session goal maintenance: archived {} goals, dropped {} empty partitions", archived, dropped);
+    }
+
+    @Transactional
+    public long archive() {
+        return archiveRepository.archiveCompletedBefore(LocalDateTime.now().minusDays(archiveAfterDays));
+    }
+
+    private void migrateToPartitioned() {
+        log.info("Converting session_goals to a partitioned table");
+        jdbcTemplate.execute("LOCK TABLE session_goals IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("UPDATE session_goals SET created_at = now() WHERE created_at IS NULL");
+        jdbcTemplate.execute("ALTER TABLE session_goals RENAME TO session_goals_legacy");
+        jdbcTemplate.execute("CREATE TABLE session_goals (LIKE session_goals_legacy INCLUDING DEFAULTS INCLUDING IDENTITY) " +
+                "PARTITION BY RANGE (created_at)");
+        // The partition key has to be part of the primary key
+        jdbcTemplate.execute("ALTER TABLE session_goals ADD PRIMARY KEY (id, created_at)");
+        jdbcTemplate.execute("ALTER TABLE session_goals ADD FOREIGN KEY (user_id) REFERENCES users (id)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_session_goals_user_created ON session_goals (user_id, created_at)");
+
+        LocalDateTime oldest = jdbcTemplate.queryForObject("SELECT min(created_at) FROM session_goals_legacy", LocalDateTime.class);
+        createPartitions(oldest != null ? YearMonth.from(oldest) : YearMonth.now(), YearMonth.now().plusMonths(monthsAhead));
+
+        jdbcTemplate.execute("INSERT INTO session_goals SELECT * FROM session_goals_legacy");
+
+        // serial: hand the sequence over before the old table is dropped; identity: continue after the copied ids
+        String oldSequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('session_goals_legacy', 'id')", String.class);
+        String newSequence = jdbcTemplate.queryForObject("SELECT pg_get_serial_sequence('session_goals', 'id')", String.class);
+        if (newSequence == null && oldSequence != null) {
+            jdbcTemplate.execute("ALTER SEQUENCE " + oldSequence + " OWNED BY session_goals.id");
+        } else if (newSequence != null) {
+            jdbcTemplate.queryForObject("SELECT setval('" + newSequence + "', (SELECT COALESCE(max(id), 0) + 1 FROM session_goals), false)", Long.class);
+        }
+
+        jdbcTemplate.execute("DROP TABLE session_goals_legacy");
+    }
+
+    private void createPartitions(YearMonth from, YearMonth to) {
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF session_goals " +
+                        "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+            } catch (DataAccessException e) {
+                // e.g. the default partition already holds rows of this month
+                log.warn("Could not create partition {}", partitionName(month), e);
+            }
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS session_goals_default PARTITION OF session_goals DEFAULT");
+    }
+
+    // Dropping an empty partition is cheap, it is never scanned again afterwards
+    private int dropEmptyPartitionsBefore(YearMonth cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass('session_goals') AND c.relname ~ '^session_goals_p[0-9]{6}$'",
+                String.class);
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            YearMonth month = YearMonth.parse(partition.substring("session_goals_p".length()), PARTITION_SUFFIX);
+            if (!month.isBefore(cutoff)) continue;
+
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "session_goals_p" + month.format(PARTITION_SUFFIX);
+    }
+}
@@ -0,0 +1,74 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.OutboxEventType;
+import com.trick_manager.Trick_API.entity.SessionGoal;
+import com.trick_manager.Trick_API.entity.User;
+import com.trick_manager.Trick_API.repository.MutationClockRepository;
+import com.trick_manager.Trick_API.repository.SessionGoalRepository;
+import com.trick_manager.Trick_API.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+public class SessionGoalService {
+
+    @Autowired
+    private SessionGoalRepository goalRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TrickActionService trickActionService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private MutationClockRepository clockRepository;
+
+    @Transactional
+    public SessionGoal updateGoal(Long id, SessionGoal goalDetails, String username) {
+        return updateGoal(id, goalDetails, username, LocalDateTime.now())
+                .orElseGet(() -> goalRepository.findById(id).orElseThrow());
+    }
+
+    // Last-writer-wins, empty if a newer update for this goal was already applied
+    @Transactional
+    public Optional<SessionGoal> updateGoal(Long id, SessionGoal goalDetails, String username, LocalDateTime modifiedAt) {
+        SessionGoal goal = goalRepository.findById(id).orElseThrow();
+        User user = userRepository.findByUsername(username).orElseThrow();
+
+        // Security check
+        if (!goal.getUser().getUsername().equals(user.getUsername())) {
+            throw new RuntimeException("Unauthorized");
+        }
+
+        if (clockRepository.advance(user.getId(), "goal:" + id, modifiedAt) == 0) {
+            return Optional.empty();
+        }
+
+        boolean wasCompleted = goal.isCompleted();
+
+        goal.setCurrentCount(goalDetails.getCurrentCount());
+        goal.setRemainingTime(goalDetails.getRemainingTime());
+        goal.setCompleted(goalDetails.isCompleted());
+
+        SessionGoal updatedGoal = goalRepository.save(goal);
+
+        if (!wasCompleted && updatedGoal.isCompleted()) {
+            outboxService.append(OutboxEventType.GOAL_COMPLETED, user.getId(), updatedGoal.getTrickId(), updatedGoal.getId());
+
+            // If it's a trick goal, add to completed tricks
+            if ("trick".equals(updatedGoal.getType()) && updatedGoal.getTrickId() != null) {
+                trickActionService.addToCompleted(user.getId(), updatedGoal.getTrickId(), modifiedAt);
+            }
+        }
+
+        return Optional.of(updatedGoal);
+    }
+}
@@ -0,0 +1,165 @@
+package com.trick_manager.Trick_API.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for hot shared reads: the first caller for a key runs the loader, everyone arriving
+ * while it runs waits for and gets the same result (or exception). With singleflight.ttl-ms.&lt;name&gt;
+ * the result is reused for that long afterwards. The fast path is a lock-free map lookup.
+ * Keys must contain everything the result depends on, including the user for personal data.
+ */
+@Service
+public class SingleFlight {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private Environment environment;
+
+    private final ConcurrentHashMap<String, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Long> ttlNanosByName = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private static final class Flight {
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        // System.nanoTime() until which a completed result is reused, written before completion
+        volatile long expiresAt;
+    }
+
+    // One query and one serialization per format for all concurrent identical requests
+    public ResponseEntity<byte[]> serialized(String name, String key, Supplier<?> loader) {
+        MediaType format = negotiateFormat();
+        ObjectMapper mapper = format == MediaType.APPLICATION_JSON ? objectMapper : cborConverter.getObjectMapper();
+        byte[] body = execute(name, format.getSubtype() + '|' + key, () -> {
+            try {
+                return mapper.writeValueAsBytes(loader.get());
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(format)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .body(body);
+    }
+
+    // Same preference as the message converters: JSON for wildcards, CBOR only when asked for
+    private MediaType negotiateFormat() {
+        NativeWebRequest request = new ServletWebRequest(
+                ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest());
+        try {
+            for (MediaType type : contentNegotiationManager.resolveMediaTypes(request)) {
+                if (type.isCompatibleWith(MediaType.APPLICATION_JSON)) return MediaType.APPLICATION_JSON;
+                if (type.isCompatibleWith(MediaType.APPLICATION_CBOR)) return MediaType.APPLICATION_CBOR;
+            }
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            // Unparseable Accept header, fall back to JSON like before
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, String key, Supplier<T> loader) {
+        String flightKey = name + '|' + key;
+
+        while (true) {
+            Flight current = flights.get(flightKey);
+            if (current != null) {
+                if (!current.result.isDone()) {
+                    count(name, "coalesced");
+                    return (T) await(current);
+                }
+                if (System.nanoTime() - current.expiresAt < 0) {
+                    count(name, "cached");
+                    return (T) await(current);
+                }
+            }
+
+            Flight mine = new Flight();
+            boolean started = current == null
+                    ? flights.putIfAbsent(flightKey, mine) == null
+                    : flights.replace(flightKey, current, mine);
+            // Lost the race, another caller just started a flight for this key: join it
+            if (!started) continue;
+
+            count(name, "executed");
+            long ttlNanos = ttlNanos(name);
+            try {
+                T value = loader.get();
+                mine.expiresAt = System.nanoTime() + ttlNanos;
+                mine.result.complete(value);
+                if (ttlNanos == 0) flights.remove(flightKey, mine);
+                return value;
+            } catch (Throwable e) {
+                // Errors too, waiting callers would otherwise wait forever
+                flights.remove(flightKey, mine);
+                mine.result.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Object await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error cause) throw cause;
+            throw e;
+        }
+    }
+
+    // Expired results are only replaced when their key is asked for again, and keys contain user input
+    // (category ids), so the ones nobody asks for any more are removed here
+    @Scheduled(fixedDelayString = "${singleflight.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.result.isDone() && now - flight.expiresAt >= 0);
+    }
+
+    private long ttlNanos(String name) {
+        return ttlNanosByName.computeIfAbsent(name, n ->
+                TimeUnit.MILLISECONDS.toNanos(environment.getProperty("singleflight.ttl-ms." + n, Long.class, 0L)));
+    }
+
+    private void count(String name, String outcome) {
+        counters.computeIfAbsent(name + '|' + outcome, k -> Counter.builder("singleflight.calls")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry)).increment();
+    }
+}
@@ -1,13 +1,21 @@
 package com.trick_manager.Trick_API.service;
 
 import com.trick_manager.Trick_API.entity.CompletedTrick;
+import com.trick_manager.Trick_API.entity.OutboxEventType;
 import com.trick_manager.Trick_API.entity.WishlistTrick;
 import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
+import com.trick_manager.Trick_API.repository.MutationClockRepository;
 import com.trick_manager.Trick_API.repository.WishlistTrickRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The variants with a modifiedAt are last-writer-wins: they return false and change nothing
+// when a newer write for the same trick was already applied (see MutationClockRepository).
 @Service
 public class TrickActionService {
 
@@ -17,33 +25,105 @@ public class TrickActionService {
     @Autowired
     private CompletedTrickRepository completedRepository;
 
+    @Autowired
+    private MutationClockRepository clockRepository;
+
+    @Autowired
+    private ProgressService progressService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private LevelService levelService;
+
+    @Autowired
+    private ProfileCardService profileCardService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
     @Transactional
     public void addToWishlist(Long userId, Long trickId) {
+        addToWishlist(userId, trickId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public boolean addToWishlist(Long userId, Long trickId, LocalDateTime modifiedAt) {
+        if (clockRepository.advance(userId, "wishlist:" + trickId, modifiedAt) == 0) return false;
+
         if (!wishlistRepository.existsByUserIdAndTrickId(userId, trickId)) {
             WishlistTrick item = new WishlistTrick();
             item.setUserId(userId);
             item.setTrickId(trickId);
             wishlistRepository.save(item);
+            outboxService.append(OutboxEventType.WISHLIST_ADDED, userId, trickId);
         }
+        return true;
     }
 
     @Transactional
     public void removeFromWishlist(Long userId, Long trickId) {
-        wishlistRepository.deleteByUserIdAndTrickId(userId, trickId);
+        removeFromWishlist(userId, trickId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public boolean removeFromWishlist(Long userId, Long trickId, LocalDateTime modifiedAt) {
+        if (clockRepository.advance(userId, "wishlist:" + trickId, modifiedAt) == 0) return false;
+
+        if (wishlistRepository.existsByUserIdAndTrickId(userId, trickId)) {
+            wishlistRepository.deleteByUserIdAndTrickId(userId, trickId);
+            outboxService.append(OutboxEventType.WISHLIST_REMOVED, userId, trickId);
+        }
+        return true;
     }
 
     @Transactional
     public void addToCompleted(Long userId, Long trickId) {
+        addToCompleted(userId, trickId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public boolean addToCompleted(Long userId, Long trickId, LocalDateTime modifiedAt) {
+        if (clockRepository.advance(userId, "completed:" + trickId, modifiedAt) == 0) return false;
+
         if (!completedRepository.existsByUserIdAndTrickId(userId, trickId)) {
+            List<Long> previousTrickIds = recommendationService.findPreviousTrickIds(userId);
             CompletedTrick item = new CompletedTrick();
             item.setUserId(userId);
             item.setTrickId(trickId);
             completedRepository.save(item);
+            progressService.recordCompletion(userId, trickId, LocalDate.now(), 1);
+            levelService.evaluate(userId);
+            profileCardService.evict(userId);
+            invalidationBus.publish(CacheInvalidationBus.PROFILE, userId);
+            outboxService.appendCompletion(userId, trickId, previousTrickIds);
         }
+        return true;
     }
 
     @Transactional
     public void removeFromCompleted(Long userId, Long trickId) {
-        completedRepository.deleteByUserIdAndTrickId(userId, trickId);
+        removeFromCompleted(userId, trickId, LocalDateTime.now());
+    }
+
+    @Transactional
+    public boolean removeFromCompleted(Long userId, Long trickId, LocalDateTime modifiedAt) {
+        if (clockRepository.advance(userId, "completed:" + trickId, modifiedAt) == 0) return false;
+
+        completedRepository.findFirstByUserIdAndTrickId(userId, trickId).ifPresent(item -> {
+            if (item.getCreatedAt() != null) {
+                progressService.recordCompletion(userId, trickId, item.getCreatedAt().toLocalDate(), -1);
+            }
+            completedRepository.deleteByUserIdAndTrickId(userId, trickId);
+            levelService.evaluate(userId);
+            profileCardService.evict(userId);
+            invalidationBus.publish(CacheInvalidationBus.PROFILE, userId);
+            outboxService.append(OutboxEventType.TRICK_UNCOMPLETED, userId, trickId);
+        });
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,211 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.repository.QueryTimeouts;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * Trick, completed and wishlist lists with keyset pagination and field selection. Only the requested
+ * columns are selected, and a page continues after the last row of the previous one (cursor) instead
+ * of skipping rows with OFFSET. Cursors are opaque to clients.
+ * Unknown fields, sorts and malformed cursors throw IllegalArgumentException.
+ */
+@Service
+public class TrickListService {
+
+    public static final int MAX_LIMIT = 200;
+
+    // Page of rows, nextCursor is null on the last page
+    public record Page(List<Map<String, Object>> items, String nextCursor) {
+    }
+
+    private static final Map<String, String> TRICK_FIELDS = fields(
+            "id", "t.id",
+            "name", "t.name",
+            "category_id", "t.category_id",
+            "completed", "EXISTS (SELECT 1 FROM completed_tricks c WHERE c.user_id = :userId AND c.trick_id = t.id)",
+            "wishlisted", "EXISTS (SELECT 1 FROM wishlist_tricks w WHERE w.user_id = :userId AND w.trick_id = t.id)");
+
+    private static final Map<String, String> COMPLETED_FIELDS = fields(
+            "id", "t.id",
+            "name", "t.name",
+            "category_id", "t.category_id",
+            "created_at", "l.created_at");
+
+    private static final Map<String, String> WISHLIST_FIELDS = COMPLETED_FIELDS;
+
+    // Same fields as the unpaginated responses
+    private static final List<String> TRICK_DEFAULT = List.of("id", "name", "completed", "wishlisted");
+    private static final List<String> COMPLETED_DEFAULT = List.of("id", "name", "category_id", "created_at");
+    private static final List<String> WISHLIST_DEFAULT = List.of("id", "name", "category_id");
+
+    @Autowired
+    private DataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        jdbcTemplate.getJdbcTemplate().setQueryTimeout(Integer.parseInt(QueryTimeouts.REQUEST));
+    }
+
+    // All tricks ordered by id; userId null (anonymous) reports completed and wishlisted as false
+    @Transactional(readOnly = true)
+    public Page getTricks(Long userId, Long categoryId, String fields, String cursor, Integer limit) {
+        List<String> selected = parseFields(fields, TRICK_FIELDS, TRICK_DEFAULT);
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String field : selected) {
+            String expression = userId == null && (field.equals("completed") || field.equals("wishlisted"))
+                    ? "FALSE" : TRICK_FIELDS.get(field);
+            sql.append(expression).append(" AS ").append(field).append(", ");
+        }
+        sql.append("t.id AS k_id FROM tricks t WHERE TRUE");
+        if (categoryId != null) {
+            sql.append(" AND t.category_id = :categoryId");
+            params.addValue("categoryId", categoryId);
+        }
+        if (cursor != null) {
+            sql.append(" AND t.id > :afterId");
+            params.addValue("afterId", parseIdCursor(cursor));
+        }
+        sql.append(" ORDER BY t.id");
+        return query(sql, params, selected, limit, false);
+    }
+
+    @Transactional(readOnly = true)
+    public Page getCompleted(Long userId, String fields, String sort, String cursor, Integer limit) {
+        return getUserList("completed_tricks", COMPLETED_FIELDS, COMPLETED_DEFAULT, userId, fields, sort, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public Page getWishlist(Long userId, String fields, String sort, String cursor, Integer limit) {
+        return getUserList("wishlist_tricks", WISHLIST_FIELDS, WISHLIST_DEFAULT, userId, fields, sort, cursor, limit);
+    }
+
+    // Paged requests (cursor or limit) get {"items", "nextCursor"}, fields alone a plain array
+    public static Object body(Page page, String cursor, Integer limit) {
+        if (cursor == null && limit == null) return page.items();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", page.items());
+        body.put("nextCursor", page.nextCursor());
+        return body;
+    }
+
+    // sort=created_at (default): newest first by the time the row was added, sort=id: by trick id
+    private Page getUserList(String table, Map<String, String> allowed, List<String> defaults, Long userId,
+                             String fields, String sort, String cursor, Integer limit) {
+        List<String> selected = parseFields(fields, allowed, defaults);
+        boolean byTime = sort == null || sort.equals("created_at");
+        if (!byTime && !sort.equals("id")) throw new IllegalArgumentException("Unknown sort: " + sort);
+        MapSqlParameterSource params = new MapSqlParameterSource("userId", userId);
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String field : selected) {
+            sql.append(allowed.get(field)).append(" AS ").append(field).append(", ");
+        }
+        // Rows from before created_at was recorded sort as the oldest
+        String time = "COALESCE(l.created_at, TIMESTAMP 'epoch')";
+        sql.append(byTime ? time + " AS k_time, l.id AS k_id" : "t.id AS k_id")
+                .append(" FROM ").append(table).append(" l JOIN tricks t ON t.id = l.trick_id WHERE l.user_id = :userId");
+        if (cursor != null) {
+            if (byTime) {
+                Object[] position = parseTimeCursor(cursor);
+                sql.append(" AND (").append(time).append(", l.id) < (:afterTime, :afterId)");
+                params.addValue("afterTime", position[0]).addValue("afterId", position[1]);
+            } else {
+                sql.append(" AND t.id > :afterId");
+                params.addValue("afterId", parseIdCursor(cursor));
+            }
+        }
+        sql.append(byTime ? " ORDER BY k_time DESC, l.id DESC" : " ORDER BY t.id");
+        return query(sql, params, selected, limit, byTime);
+    }
+
+    private Page query(StringBuilder sql, MapSqlParameterSource params, List<String> selected, Integer limit, boolean byTime) {
+        Integer pageSize = limit == null ? null : Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One row more than the page tells whether there is a next page
+        if (pageSize != null) sql.append(" LIMIT ").append(pageSize + 1);
+
+        List<Object[]> keys = new ArrayList<>();
+        List<Map<String, Object>> items = jdbcTemplate.query(sql.toString(), params, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : selected) row.put(field, rs.getObject(field));
+            // LocalDateTime directly: going through java.sql.Timestamp shifts times in the JVM's DST gap
+            keys.add(new Object[]{byTime ? rs.getObject("k_time", LocalDateTime.class) : null, rs.getLong("k_id")});
+            return row;
+        });
+
+        if (pageSize == null || items.size() <= pageSize) return new Page(items, null);
+        Object[] last = keys.get(pageSize - 1);
+        String next = byTime
+                ? encode("t|" + last[0] + "|" + last[1])
+                : encode("i|" + last[1]);
+        return new Page(items.subList(0, pageSize), next);
+    }
+
+    private static List<String> parseFields(String fields, Map<String, String> allowed, List<String> defaults) {
+        if (fields == null || fields.isBlank()) return defaults;
+        Set<String> selected = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) continue;
+            if (!allowed.containsKey(name)) throw new IllegalArgumentException("Unknown field: " + name);
+            selected.add(name);
+        }
+        if (selected.isEmpty()) return defaults;
+        return new ArrayList<>(selected);
+    }
+
+    private static long parseIdCursor(String cursor) {
+        String[] parts = decode(cursor);
+        try {
+            if (parts.length == 2 && parts[0].equals("i")) return Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private static Object[] parseTimeCursor(String cursor) {
+        String[] parts = decode(cursor);
+        try {
+            if (parts.length == 3 && parts[0].equals("t")) {
+                return new Object[]{LocalDateTime.parse(parts[1]), Long.parseLong(parts[2])};
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("Invalid cursor");
+    }
+
+    private static String encode(String cursor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Map<String, String> fields(String... pairs) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) fields.put(pairs[i], pairs[i + 1]);
+        return Collections.unmodifiableMap(fields);
+    }
+}
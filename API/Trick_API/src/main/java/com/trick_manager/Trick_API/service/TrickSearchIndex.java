@@ -0,0 +1,300 @@
+package com.trick_manager.Trick_API.service;
+
+import com.trick_manager.Trick_API.entity.Trick;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory prefix index over trick names, so search and autocomplete never hit the database.
+ * Every word of a name is indexed by all of its prefixes (edge n-grams), each prefix maps to a
+ * sorted array of ranks so multi-word queries are a merge intersection. A rank is a number per
+ * trick in the order of the static ranking (shorter names first), so candidates come best-first
+ * and broad prefixes can stop early. Reads are lock-free, writes are serialized, copy-on-write
+ * and applied incrementally from {@link TrickService}.
+ */
+@Component
+public class TrickSearchIndex implements CacheInvalidationListener {
+
+    private static final int MAX_PREFIX_LENGTH = 12;
+    private static final long[] EMPTY = new long[0];
+
+    // Candidates scored per search at most (or limit, if larger). A one-letter prefix matches a large
+    // part of the catalog; past this many, only the best-ranked candidates are looked at.
+    private static final int MAX_SCORED = 1000;
+
+    // Common skate abbreviations, "bs 180" should find "Backside 180"
+    private static final Map<String, String> ALIASES = Map.of(
+            "bs", "backside",
+            "fs", "frontside",
+            "sw", "switch",
+            "kf", "kickflip",
+            "hf", "heelflip"
+    );
+
+    private record Entry(Long id, String name, Long categoryId, String normalizedName, List<String> tokens, long rank) {
+        Entry withRank(long rank) {
+            return new Entry(id, name, categoryId, normalizedName, tokens, rank);
+        }
+    }
+
+    private record ScoredEntry(Entry entry, int score) {
+    }
+
+    // The static ranking that ranks follow, also the tie-breaker between equal scores
+    private static final Comparator<Entry> RANK = Comparator
+            .comparingInt((Entry e) -> e.name().length())
+            .thenComparing(Entry::name)
+            .thenComparing(Entry::id);
+
+    @Autowired
+    private TrickRepository trickRepository;
+
+    // Everything a search reads. A full index numbers all ranks anew and replaces it as a whole,
+    // so a running search never mixes two numberings.
+    private record Snapshot(Map<Long, Entry> entriesByRank, Map<String, long[]> prefixIndex) {
+    }
+
+    private volatile Snapshot snapshot = new Snapshot(new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // Writers only: the neighbours of a new entry, and the distance between ranks after a full index
+    private final NavigableSet<Entry> ranked = new TreeSet<>(RANK);
+    private long rankGap;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<Entry> newEntries = new ArrayList<>();
+        for (Trick trick : trickRepository.findAll()) {
+            Entry entry = toEntry(trick);
+            if (entry != null) newEntries.add(entry);
+        }
+        index(newEntries);
+    }
+
+    // Bulk build: number the entries in rank order, then every posting list is filled already sorted.
+    // The ranks use the lower half of the long range evenly, the upper half is left for appends.
+    private synchronized void index(Collection<Entry> newEntries) {
+        List<Entry> sorted = new ArrayList<>(newEntries);
+        sorted.sort(RANK);
+        long gap = Long.MAX_VALUE / 2 / (sorted.size() + 1);
+        Map<Long, Entry> byRank = new ConcurrentHashMap<>();
+        Map<String, List<Long>> postings = new HashMap<>();
+        long rank = 0;
+        for (Entry entry : sorted) {
+            rank += gap;
+            byRank.put(rank, entry.withRank(rank));
+            for (String prefix : prefixes(entry.tokens())) {
+                postings.computeIfAbsent(prefix, k -> new ArrayList<>()).add(rank);
+            }
+        }
+        Map<String, long[]> newPrefixIndex = new ConcurrentHashMap<>();
+        postings.forEach((prefix, ranks) -> newPrefixIndex.put(prefix, ranks.stream().mapToLong(Long::longValue).toArray()));
+
+        snapshot = new Snapshot(byRank, newPrefixIndex);
+        rankGap = gap;
+        entries.clear();
+        ranked.clear();
+        for (Entry entry : byRank.values()) {
+            entries.put(entry.id(), entry);
+            ranked.add(entry);
+        }
+    }
+
+    public synchronized void put(Trick trick) {
+        Entry entry = toEntry(trick);
+        if (entry == null) return;
+        remove(entry.id());
+
+        // Middle of the gap to its neighbours in the ranking, one gap further after the last one;
+        // without room left, number everything anew
+        Entry lower = ranked.lower(entry);
+        Entry higher = ranked.higher(entry);
+        long from = lower != null ? lower.rank() : 0;
+        long to = higher != null ? higher.rank() : (from < Long.MAX_VALUE - 2 * rankGap ? from + 2 * rankGap : from);
+        if (to - from < 2) {
+            List<Entry> all = new ArrayList<>(entries.values());
+            all.add(entry);
+            index(all);
+            return;
+        }
+        entry = entry.withRank(from + (to - from) / 2);
+        entries.put(entry.id(), entry);
+        ranked.add(entry);
+        Map<String, long[]> prefixIndex = snapshot.prefixIndex();
+        snapshot.entriesByRank().put(entry.rank(), entry);
+
+        for (String prefix : prefixes(entry.tokens())) {
+            long[] ids = prefixIndex.getOrDefault(prefix, EMPTY);
+            int pos = Arrays.binarySearch(ids, entry.rank());
+            if (pos >= 0) continue;
+            int insertAt = -pos - 1;
+            long[] updated = new long[ids.length + 1];
+            System.arraycopy(ids, 0, updated, 0, insertAt);
+            updated[insertAt] = entry.rank();
+            System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+            prefixIndex.put(prefix, updated);
+        }
+    }
+
+    public synchronized void remove(Long trickId) {
+        Entry entry = entries.remove(trickId);
+        if (entry == null) return;
+        ranked.remove(entry);
+        Map<String, long[]> prefixIndex = snapshot.prefixIndex();
+
+        for (String prefix : prefixes(entry.tokens())) {
+            long[] ids = prefixIndex.getOrDefault(prefix, EMPTY);
+            int pos = Arrays.binarySearch(ids, entry.rank());
+            if (pos < 0) continue;
+            if (ids.length == 1) {
+                prefixIndex.remove(prefix);
+                continue;
+            }
+            long[] updated = new long[ids.length - 1];
+            System.arraycopy(ids, 0, updated, 0, pos);
+            System.arraycopy(ids, pos + 1, updated, pos, ids.length - pos - 1);
+            prefixIndex.put(prefix, updated);
+        }
+        snapshot.entriesByRank().remove(entry.rank());
+    }
+
+    public List<Map<String, Object>> search(String query, Long categoryId, int limit) {
+        List<String> queryTokens = tokenize(query).stream().map(t -> ALIASES.getOrDefault(t, t)).toList();
+        if (queryTokens.isEmpty() || limit <= 0) return List.of();
+        Snapshot current = snapshot;
+
+        // Intersect the posting lists, starting with the smallest one
+        List<long[]> postings = new ArrayList<>();
+        for (String token : queryTokens) {
+            long[] ids = lookup(current, token);
+            if (ids.length == 0) return List.of();
+            postings.add(ids);
+        }
+        postings.sort(Comparator.comparingInt(ids -> ids.length));
+        long[] candidates = postings.get(0);
+        for (int i = 1; i < postings.size() && candidates.length > 0; i++) {
+            candidates = intersect(candidates, postings.get(i));
+        }
+
+        String normalizedQuery = String.join(" ", queryTokens);
+        Comparator<ScoredEntry> ranking = Comparator
+                .comparingInt(ScoredEntry::score).reversed()
+                .thenComparing(ScoredEntry::entry, RANK);
+
+        // Bounded heap holding the current top results, the worst one on top. Candidates come in rank
+        // order, so one that only ties the worst score ranks below it and is skipped without allocating.
+        PriorityQueue<ScoredEntry> top = new PriorityQueue<>(limit + 1, ranking.reversed());
+        int scored = 0;
+        int maxScored = Math.max(limit, MAX_SCORED);
+        for (long rank : candidates) {
+            Entry entry = current.entriesByRank().get(rank);
+            if (entry == null) continue;
+            if (categoryId != null && !categoryId.equals(entry.categoryId())) continue;
+            if (scored++ == maxScored) break;
+
+            int score = score(entry, normalizedQuery, queryTokens);
+            if (top.size() == limit && score <= top.peek().score()) continue;
+            top.add(new ScoredEntry(entry, score));
+            if (top.size() > limit) top.poll();
+        }
+
+        List<ScoredEntry> results = new ArrayList<>(top);
+        results.sort(ranking);
+        return results.stream().map(s -> {
+            Map<String, Object> map = new HashMap<>();
+            map.put("id", s.entry().id());
+            map.put("name", s.entry().name());
+            map.put("category_id", s.entry().categoryId());
+            return map;
+        }).toList();
+    }
+
+    @Override
+    public void onInvalidate(String cache, Set<Long> ids) {
+        if (!CacheInvalidationBus.TRICK.equals(cache)) return;
+        for (Long id : ids) {
+            Optional<Trick> trick = trickRepository.findById(id);
+            if (trick.isPresent()) put(trick.get());
+            else remove(id);
+        }
+    }
+
+    @Override
+    public void onInvalidateAll() {
+        rebuild();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static long[] lookup(Snapshot current, String token) {
+        if (token.length() <= MAX_PREFIX_LENGTH) {
+            return current.prefixIndex().getOrDefault(token, EMPTY);
+        }
+        // Longer than the indexed prefixes: narrow down by prefix, then verify the full token
+        return Arrays.stream(current.prefixIndex().getOrDefault(token.substring(0, MAX_PREFIX_LENGTH), EMPTY))
+                .filter(rank -> {
+                    Entry entry = current.entriesByRank().get(rank);
+                    return entry != null && entry.tokens().stream().anyMatch(t -> t.startsWith(token));
+                })
+                .toArray();
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] result = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    private static Set<String> prefixes(List<String> tokens) {
+        Set<String> prefixes = new HashSet<>();
+        for (String token : tokens) {
+            for (int i = 1; i <= Math.min(token.length(), MAX_PREFIX_LENGTH); i++) {
+                prefixes.add(token.substring(0, i));
+            }
+        }
+        return prefixes;
+    }
+
+    private int score(Entry entry, String normalizedQuery, List<String> queryTokens) {
+        int score = 0;
+        if (entry.normalizedName().equals(normalizedQuery)) score += 100;
+        if (entry.normalizedName().startsWith(normalizedQuery)) score += 50;
+        for (String token : queryTokens) {
+            if (entry.tokens().contains(token)) score += 10;
+        }
+        return score;
+    }
+
+    private static Entry toEntry(Trick trick) {
+        if (trick == null || trick.getId() == null || trick.getName() == null) return null;
+        Long categoryId = trick.getCategory() != null ? trick.getCategory().getId() : null;
+        List<String> tokens = tokenize(trick.getName());
+        return new Entry(trick.getId(), trick.getName(), categoryId, String.join(" ", tokens), tokens, 0);
+    }
+
+    private static List<String> tokenize(String text) {
+        if (text == null) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) tokens.add(token);
+        }
+        return tokens;
+    }
+}
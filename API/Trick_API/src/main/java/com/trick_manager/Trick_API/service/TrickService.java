@@ -4,12 +4,16 @@ import com.trick_manager.Trick_API.entity.Trick;
 import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
 import com.trick_manager.Trick_API.repository.TrickRepository;
 import com.trick_manager.Trick_API.repository.WishlistTrickRepository;
+import com.trick_manager.Trick_API.config.StaleOnFailure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,21 +28,38 @@ public class TrickService {
     @Autowired
     private WishlistTrickRepository wishlistRepository;
 
+    @Autowired
+    private TrickSearchIndex searchIndex;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private ProfileCardService profileCardService;
+
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getTricksForUser(Long userId, Long categoryId) {
         List<Trick> tricks = (categoryId == null)
                 ? trickRepository.findAll()
                 : trickRepository.findByCategoryId(categoryId);
 
+        // Two queries for the flags instead of two per trick
+        Set<Long> completed = new HashSet<>(completedRepository.findTrickIdsByUserId(userId));
+        Set<Long> wishlisted = new HashSet<>(wishlistRepository.findTrickIdsByUserId(userId));
+
         return tricks.stream().map(trick -> {
             Map<String, Object> map = new HashMap<>();
             map.put("id", trick.getId());
             map.put("name", trick.getName());
-            map.put("completed", completedRepository.existsByUserIdAndTrickId(userId, trick.getId()));
-            map.put("wishlisted", wishlistRepository.existsByUserIdAndTrickId(userId, trick.getId()));
+            map.put("completed", completed.contains(trick.getId()));
+            map.put("wishlisted", wishlisted.contains(trick.getId()));
             return map;
         }).collect(Collectors.toList());
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getAllTricksWithFalseFlags(Long categoryId) {
         List<Trick> tricks = (categoryId == null)
                 ? trickRepository.findAll()
@@ -54,39 +75,66 @@ public class TrickService {
         }).collect(Collectors.toList());
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Trick> getAllTricks() {
         return trickRepository.findAll();
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public Trick getTrickById(Long id) {
         return trickRepository.findById(id).orElse(null);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Trick> getTricksByCategoryId(Long categoryId) {
         return trickRepository.findByCategoryId(categoryId);
     }
 
+    public List<Map<String, Object>> searchTricks(String query, Long categoryId, int limit) {
+        return searchIndex.search(query, categoryId, limit);
+    }
+
     public Trick createTrick(Trick trick) {
-        return trickRepository.save(trick);
+        Trick saved = trickRepository.save(trick);
+        searchIndex.put(saved);
+        invalidationBus.publish(CacheInvalidationBus.TRICK, saved.getId());
+        return saved;
     }
 
     public Trick updateTrick(Long id, Trick trick) {
         trick.setId(id);
-        return trickRepository.save(trick);
+        Trick saved = trickRepository.save(trick);
+        searchIndex.put(saved);
+        // Other instances evict the cards on the TRICK invalidation
+        profileCardService.evictTrick(id);
+        invalidationBus.publish(CacheInvalidationBus.TRICK, saved.getId());
+        return saved;
     }
 
     public void deleteTrick(Long id) {
         trickRepository.deleteById(id);
+        searchIndex.remove(id);
+        profileCardService.evictTrick(id);
+        invalidationBus.publish(CacheInvalidationBus.TRICK, id);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Trick> getWishlistTricksForUser(Long userId) {
         return trickRepository.findWishlistTricksByUserId(userId);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Trick> getCompletedTricksForUser(Long userId) {
         return trickRepository.findCompletedTricksByUserId(userId);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<Map<String, Object>> getCompletedTricksWithTimestamps(Long userId) {
         return trickRepository.findCompletedTricksByUserIdWithTimestamp(userId);
     }
@@ -0,0 +1,117 @@
+package com.trick_manager.Trick_API.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trick-to-trick transition counts: cell (a, b) counts how often a skater completed b after a.
+ * Trick ids are mapped to dense indexes and every row is a primitive open-addressing int map,
+ * so scoring never boxes. Not thread-safe, {@link RecommendationService} guards access.
+ */
+class TrickTransitionMatrix {
+
+    private final Map<Long, Integer> indexOf = new HashMap<>();
+    private long[] trickIds = new long[64];
+    private int[] completionCounts = new int[64];
+    private Row[] rows = new Row[64];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    long trickIdAt(int index) {
+        return trickIds[index];
+    }
+
+    int completionCountAt(int index) {
+        return completionCounts[index];
+    }
+
+    Integer indexOf(long trickId) {
+        return indexOf.get(trickId);
+    }
+
+    void recordCompletion(long trickId) {
+        // index() may grow the arrays, so resolve it before reading the field
+        int index = index(trickId);
+        completionCounts[index]++;
+    }
+
+    void recordTransition(long fromTrickId, long toTrickId) {
+        if (fromTrickId == toTrickId) return;
+        int from = index(fromTrickId);
+        int to = index(toTrickId);
+        if (rows[from] == null) rows[from] = new Row();
+        rows[from].increment(to);
+    }
+
+    /** Adds weight * count(from, b) to scores[b] for every successor b of the given row. */
+    void accumulateSuccessors(int from, double weight, double[] scores) {
+        Row row = rows[from];
+        if (row == null) return;
+        for (int i = 0; i < row.keys.length; i++) {
+            if (row.keys[i] != Row.FREE) scores[row.keys[i]] += weight * row.values[i];
+        }
+    }
+
+    private int index(long trickId) {
+        Integer existing = indexOf.get(trickId);
+        if (existing != null) return existing;
+
+        if (size == trickIds.length) {
+            int capacity = size * 2;
+            trickIds = Arrays.copyOf(trickIds, capacity);
+            completionCounts = Arrays.copyOf(completionCounts, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+        trickIds[size] = trickId;
+        indexOf.put(trickId, size);
+        return size++;
+    }
+
+    private static final class Row {
+        static final int FREE = -1;
+
+        int[] keys = newKeys(8);
+        int[] values = new int[8];
+        int used;
+
+        void increment(int key) {
+            if ((used + 1) * 4 > keys.length * 3) grow();
+            int slot = slot(keys, key);
+            if (keys[slot] == FREE) {
+                keys[slot] = key;
+                used++;
+            }
+            values[slot]++;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = newKeys(oldKeys.length * 2);
+            values = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] == FREE) continue;
+                int slot = slot(keys, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+
+        private static int slot(int[] keys, int key) {
+            int mask = keys.length - 1;
+            int slot = (key * 0x9E3779B9) >>> 7 & mask;
+            while (keys[slot] != FREE && keys[slot] != key) slot = (slot + 1) & mask;
+            return slot;
+        }
+
+        private static int[] newKeys(int capacity) {
+            int[] keys = new int[capacity];
+            Arrays.fill(keys, FREE);
+            return keys;
+        }
+    }
+}
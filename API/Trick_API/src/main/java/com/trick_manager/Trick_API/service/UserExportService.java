@@ -0,0 +1,129 @@
+package com.trick_manager.Trick_API.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Writes all data of a user as NDJSON, one object per line with a "type" field.
+// Rows come from a forward-only cursor and go straight to the output stream, nothing is collected in memory.
+@Service
+public class UserExportService {
+
+    // Rows per round trip, Postgres only uses a cursor for this inside a transaction (autocommit off)
+    private static final int FETCH_SIZE = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Long userId, OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Jackson separates root values with a space by default, lines end with the newline from writeRows instead
+        json.setRootValueSeparator(null);
+
+        try {
+            writeRows(json, "profile",
+                    "SELECT id, name, username, email, profile_image FROM users WHERE id = ?",
+                    userId, (rs) -> {
+                        json.writeNumberField("id", rs.getLong("id"));
+                        json.writeStringField("name", rs.getString("name"));
+                        json.writeStringField("username", rs.getString("username"));
+                        json.writeStringField("email", rs.getString("email"));
+                        json.writeStringField("profileImage", rs.getString("profile_image"));
+                    });
+
+            writeRows(json, "completedTrick",
+                    "SELECT c.trick_id, t.name AS trick_name, c.created_at FROM completed_tricks c " +
+                    "LEFT JOIN tricks t ON t.id = c.trick_id WHERE c.user_id = ? ORDER BY c.created_at, c.id",
+                    userId, (rs) -> writeTrickRow(json, rs));
+
+            writeRows(json, "wishlistTrick",
+                    "SELECT w.trick_id, t.name AS trick_name, w.created_at FROM wishlist_tricks w " +
+                    "LEFT JOIN tricks t ON t.id = w.trick_id WHERE w.user_id = ? ORDER BY w.created_at, w.id",
+                    userId, (rs) -> writeTrickRow(json, rs));
+
+            writeRows(json, "sessionGoal",
+                    "SELECT id, title, type, trick_id, target_count, current_count, timer_duration, remaining_time, " +
+                    "is_completed, created_at FROM session_goals WHERE user_id = ? ORDER BY created_at, id",
+                    userId, (rs) -> {
+                        json.writeNumberField("id", rs.getLong("id"));
+                        json.writeStringField("title", rs.getString("title"));
+                        json.writeStringField("goalType", rs.getString("type"));
+                        json.writeObjectField("trickId", rs.getObject("trick_id", Long.class));
+                        json.writeObjectField("targetCount", rs.getObject("target_count", Integer.class));
+                        json.writeObjectField("currentCount", rs.getObject("current_count", Integer.class));
+                        json.writeObjectField("timerDuration", rs.getObject("timer_duration", Long.class));
+                        json.writeObjectField("remainingTime", rs.getObject("remaining_time", Long.class));
+                        json.writeBooleanField("completed", rs.getBoolean("is_completed"));
+                        json.writeObjectField("createdAt", rs.getObject("created_at", LocalDateTime.class));
+                    });
+
+            // Completed goals that were archived out of session_goals only exist as these monthly summaries
+            writeRows(json, "sessionGoalArchive",
+                    "SELECT month, completed_goals, trick_goals, total_count, total_timer_seconds " +
+                    "FROM session_goal_archive WHERE user_id = ? ORDER BY month",
+                    userId, (rs) -> {
+                        json.writeObjectField("month", rs.getObject("month", LocalDate.class));
+                        json.writeNumberField("completedGoals", rs.getInt("completed_goals"));
+                        json.writeNumberField("trickGoals", rs.getInt("trick_goals"));
+                        json.writeNumberField("totalCount", rs.getLong("total_count"));
+                        json.writeNumberField("totalTimerSeconds", rs.getLong("total_timer_seconds"));
+                    });
+        } catch (UncheckedIOException e) {
+            // Client went away, rethrow so the cursor is closed and the transaction ends
+            throw e.getCause();
+        }
+
+        json.flush();
+    }
+
+    private void writeTrickRow(JsonGenerator json, ResultSet rs) throws IOException, SQLException {
+        json.writeNumberField("trickId", rs.getLong("trick_id"));
+        json.writeStringField("trickName", rs.getString("trick_name"));
+        json.writeObjectField("createdAt", rs.getObject("created_at", LocalDateTime.class));
+    }
+
+    private void writeRows(JsonGenerator json, String type, String sql, Long userId, RowWriter writer) {
+        jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+            try {
+                json.writeStartObject();
+                json.writeStringField("type", type);
+                writer.write(rs);
+                json.writeEndObject();
+                json.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, userId);
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws IOException, SQLException;
+    }
+}
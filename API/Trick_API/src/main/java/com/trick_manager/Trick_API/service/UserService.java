@@ -2,9 +2,18 @@ package com.trick_manager.Trick_API.service;
 
 import com.trick_manager.Trick_API.entity.User;
 import com.trick_manager.Trick_API.repository.CompletedTrickRepository;
+import com.trick_manager.Trick_API.repository.FollowRepository;
+import com.trick_manager.Trick_API.repository.IdempotencyKeyRepository;
 import com.trick_manager.Trick_API.repository.LeaderboardProjection;
+import com.trick_manager.Trick_API.repository.MutationClockRepository;
+import com.trick_manager.Trick_API.repository.RefreshTokenRepository;
+import com.trick_manager.Trick_API.repository.SessionGoalArchiveRepository;
+import com.trick_manager.Trick_API.repository.UserCompletionCountRepository;
+import com.trick_manager.Trick_API.repository.UserDailyProgressRepository;
+import com.trick_manager.Trick_API.repository.UserLevelRepository;
 import com.trick_manager.Trick_API.repository.UserRepository;
 import com.trick_manager.Trick_API.repository.WishlistTrickRepository;
+import com.trick_manager.Trick_API.config.StaleOnFailure;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -25,6 +34,39 @@ public class UserService {
     @Autowired
     private WishlistTrickRepository wishlistTrickRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserDailyProgressRepository userDailyProgressRepository;
+
+    @Autowired
+    private UserCompletionCountRepository userCompletionCountRepository;
+
+    @Autowired
+    private FollowRepository followRepository;
+
+    @Autowired
+    private MutationClockRepository mutationClockRepository;
+
+    @Autowired
+    private IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private SessionGoalArchiveRepository sessionGoalArchiveRepository;
+
+    @Autowired
+    private UserLevelRepository userLevelRepository;
+
+    @Autowired
+    private LeaderboardStreamService leaderboardStreamService;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private ProfileCardService profileCardService;
+
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
     public User registerUser(User user) {
@@ -33,18 +75,30 @@ public class UserService {
     }
 
     public boolean validateUser(String username, String password) {
-        Optional<User> userOpt = userRepository.findByUsername(username);
-        return userOpt.isPresent() && passwordEncoder.matches(password, userOpt.get().getPassword());
+        return authenticate(username, password).isPresent();
+    }
+
+    public Optional<User> authenticate(String username, String password) {
+        return userRepository.findByUsername(username)
+                .filter(user -> passwordEncoder.matches(password, user.getPassword()));
     }
 
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
 
+    // Resolves the caller on read paths, the stale fallback keeps only the id (not password hash or image)
+    @StaleOnFailure
+    public Optional<Long> findIdByUsername(String username) {
+        return userRepository.findIdByUsername(username);
+    }
+
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
     }
 
+    @StaleOnFailure
+    @Transactional(readOnly = true)
     public List<LeaderboardProjection> getLeaderboardData(Long categoryId) {
         return userRepository.getLeaderboardData(categoryId);
     }
@@ -54,6 +108,10 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         user.setProfileImage(base64Image);
         userRepository.save(user);
+        // Stream rows link the image by its hash
+        leaderboardStreamService.onUsersChanged();
+        profileCardService.evict(user.getId());
+        invalidationBus.publish(CacheInvalidationBus.USER, user.getId());
     }
 
     @Transactional
@@ -64,8 +122,19 @@ public class UserService {
         // Delete related data first
         completedTrickRepository.deleteByUserId(user.getId());
         wishlistTrickRepository.deleteByUserId(user.getId());
+        refreshTokenRepository.deleteByUserId(user.getId());
+        userDailyProgressRepository.deleteByUserId(user.getId());
+        userCompletionCountRepository.deleteByUserId(user.getId());
+        followRepository.deleteAllForUser(user.getId());
+        mutationClockRepository.deleteByUserId(user.getId());
+        idempotencyKeyRepository.deleteByUserId(user.getId());
+        sessionGoalArchiveRepository.deleteByUserId(user.getId());
+        userLevelRepository.deleteByUserId(user.getId());
         
         // Delete the user
         userRepository.delete(user);
+        leaderboardStreamService.onUsersChanged();
+        profileCardService.evict(user.getId());
+        invalidationBus.publish(CacheInvalidationBus.USER, user.getId());
     }
 }
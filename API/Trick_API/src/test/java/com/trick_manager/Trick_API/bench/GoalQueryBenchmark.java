@@ -0,0 +1,155 @@
+package com.trick_manager.Trick_API.bench;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Latency of the GET /api/goals queries as the goal history grows from 6 to 24 to 60 months:
+ * the default (the recent window plus older open goals, two queries like the controller runs them), the
+ * single OR query the default used before, ?since= with the recent window, and the full history the
+ * endpoint returned before partitioning. 2000 users get 8 goals per month, one of which stays open; open
+ * goals never leave session_goals, so this is a pessimistic share.
+ * <p>
+ * Works on the partitioned table (run the schema profile once) and on a plain one. Monthly partitions
+ * are named like SessionGoalPartitionService does, the partial index on open goals is created if missing.
+ * Only rows and users of the benchmark are written and removed again, with the partitions and the index
+ * it created.
+ * <p>
+ * Arguments: jdbc-url [user] [password]
+ */
+public class GoalQueryBenchmark {
+
+    private static final int USERS = 2000;
+    private static final int GOALS_PER_USER_MONTH = 8;
+    private static final int RECENT_DAYS = 30;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) throw new IllegalArgumentException("Arguments: jdbc-url [user] [password]");
+        try (Connection connection = DriverManager.getConnection(args[0],
+                args.length > 1 ? args[1] : null, args.length > 2 ? args[2] : null);
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (name, username, password, email) " +
+                    "SELECT 'bench', 'goalbench' || g, 'x', 'goalbench' || g || '@example.com' " +
+                    "FROM generate_series(1, " + USERS + ") g ON CONFLICT DO NOTHING");
+            long minUser = queryLong(statement, "SELECT min(id) FROM users WHERE username LIKE 'goalbench%'");
+            long maxUser = queryLong(statement, "SELECT max(id) FROM users WHERE username LIKE 'goalbench%'");
+            boolean partitioned = queryLong(statement,
+                    "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('session_goals')") > 0;
+
+            List<String> createdPartitions = new ArrayList<>();
+            boolean createdIndex = queryLong(statement, "SELECT count(*) FROM pg_class WHERE relname = 'idx_session_goals_open'") == 0;
+            if (createdIndex) {
+                statement.execute("CREATE INDEX idx_session_goals_open ON session_goals (user_id, created_at) WHERE is_completed = false");
+            }
+            try {
+                int loaded = 0;
+                for (int months : new int[]{6, 24, 60}) {
+                    for (int m = loaded; m < months; m++) {
+                        YearMonth month = YearMonth.now().minusMonths(m);
+                        if (partitioned) createPartition(statement, month, createdPartitions);
+                        statement.execute("INSERT INTO session_goals (user_id, title, type, current_count, is_completed, created_at) " +
+                                "SELECT u, 'goal', 'text', 1, g > 1, " +
+                                "date_trunc('month', now() - interval '" + m + " months') + random() * interval '27 days' " +
+                                "FROM generate_series(" + minUser + ", " + maxUser + ") u, generate_series(1, " + GOALS_PER_USER_MONTH + ") g");
+                    }
+                    loaded = months;
+                    statement.execute("ANALYZE session_goals");
+
+                    System.out.printf("%2d months, %,9d rows%n", months, queryLong(statement, "SELECT count(*) FROM session_goals"));
+                    System.out.println("  default       " + measure(connection, minUser, maxUser, true,
+                            "SELECT * FROM session_goals WHERE user_id = ? AND created_at >= ? ORDER BY created_at DESC",
+                            "SELECT * FROM session_goals WHERE user_id = ? AND is_completed = false AND created_at < ? " +
+                                    "ORDER BY created_at DESC"));
+                    System.out.println("  OR query      " + measure(connection, minUser, maxUser, true,
+                            "SELECT * FROM session_goals WHERE user_id = ? AND (is_completed = false OR created_at >= ?) " +
+                                    "ORDER BY created_at DESC"));
+                    System.out.println("  ?since=       " + measure(connection, minUser, maxUser, true,
+                            "SELECT * FROM session_goals WHERE user_id = ? AND created_at >= ? ORDER BY created_at DESC"));
+                    System.out.println("  full history  " + measure(connection, minUser, maxUser, false,
+                            "SELECT * FROM session_goals WHERE user_id = ? ORDER BY created_at DESC"));
+                }
+
+                String since = "'" + LocalDateTime.now().minusDays(RECENT_DAYS) + "'";
+                System.out.printf("Partitions scanned: default %d + %d, OR query %d, ?since= %d, full history %d%n",
+                        scannedPartitions(statement, "created_at >= " + since, minUser),
+                        scannedPartitions(statement, "is_completed = false AND created_at < " + since, minUser),
+                        scannedPartitions(statement, "(is_completed = false OR created_at >= " + since + ")", minUser),
+                        scannedPartitions(statement, "created_at >= " + since, minUser),
+                        scannedPartitions(statement, "TRUE", minUser));
+            } finally {
+                statement.execute("DELETE FROM session_goals WHERE user_id BETWEEN " + minUser + " AND " + maxUser);
+                for (String partition : createdPartitions) statement.execute("DROP TABLE " + partition);
+                if (createdIndex) statement.execute("DROP INDEX idx_session_goals_open");
+                statement.execute("DELETE FROM users WHERE username LIKE 'goalbench%'");
+            }
+        }
+    }
+
+    private static void createPartition(Statement statement, YearMonth month, List<String> created) throws SQLException {
+        String name = "session_goals_p" + month.format(PARTITION_SUFFIX);
+        if (queryLong(statement, "SELECT count(*) FROM pg_class WHERE relname = '" + name + "'") > 0) return;
+        statement.execute("CREATE TABLE " + name + " PARTITION OF session_goals " +
+                "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        created.add(name);
+    }
+
+    // p50 and p99 over 3000 requests for random users, after 500 warm-up requests; a request runs all queries
+    private static String measure(Connection connection, long minUser, long maxUser, boolean since, String... sql)
+            throws SQLException {
+        Random random = new Random(1);
+        long[] samples = new long[3000];
+        long rows = 0;
+        PreparedStatement[] queries = new PreparedStatement[sql.length];
+        try {
+            for (int q = 0; q < sql.length; q++) queries[q] = connection.prepareStatement(sql[q]);
+            for (int i = -500; i < samples.length; i++) {
+                long user = minUser + random.nextInt((int) (maxUser - minUser + 1));
+                LocalDateTime recent = LocalDateTime.now().minusDays(RECENT_DAYS);
+                long begin = System.nanoTime();
+                for (PreparedStatement query : queries) {
+                    query.setLong(1, user);
+                    if (since) query.setObject(2, recent);
+                    try (ResultSet result = query.executeQuery()) {
+                        while (result.next()) rows++;
+                    }
+                }
+                if (i >= 0) samples[i] = System.nanoTime() - begin;
+            }
+        } finally {
+            for (PreparedStatement query : queries) {
+                if (query != null) query.close();
+            }
+        }
+        Arrays.sort(samples);
+        return String.format("p50 %5.2f ms, p99 %5.2f ms, %d rows per request", samples[samples.length / 2] / 1e6,
+                samples[samples.length * 99 / 100] / 1e6, rows / (samples.length + 500));
+    }
+
+    // Table scans of partitions in the plan, pruning leaves out the others
+    private static long scannedPartitions(Statement statement, String condition, long userId) throws SQLException {
+        long scanned = 0;
+        try (ResultSet plan = statement.executeQuery("EXPLAIN (COSTS OFF) SELECT * FROM session_goals WHERE user_id = "
+                + userId + " AND " + condition + " ORDER BY created_at DESC")) {
+            while (plan.next()) {
+                String line = plan.getString(1);
+                // A bitmap scan shows up as heap scan plus index scan, count it once
+                if (line.matches(".*Scan.* on session_goals_.*") && !line.contains("Bitmap Index Scan")) scanned++;
+            }
+        }
+        return scanned;
+    }
+
+    private static long queryLong(Statement statement, String sql) throws SQLException {
+        try (ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.trick_manager.Trick_API.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and encode time of real responses per format, raw and gzipped: the tricks list, the completed list
+ * and the leaderboard, fetched as JSON from a running instance. JSON and CBOR are what the API serves,
+ * Smile is for comparison only. Gzip uses the JDK's default level, like Tomcat's compression.
+ * <p>
+ * Arguments: base-url (e.g. http://localhost:8080) access-token
+ */
+public class PayloadBenchmark {
+
+    private static final String[] ENDPOINTS = {"/api/tricks", "/api/completed", "/api/users/leaderboard"};
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) throw new IllegalArgumentException("Arguments: base-url access-token");
+        ObjectMapper json = new ObjectMapper();
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", json);
+        formats.put("cbor", new ObjectMapper(new CBORFactory()));
+        formats.put("smile", new ObjectMapper(new SmileFactory()));
+
+        HttpClient client = HttpClient.newHttpClient();
+        for (String endpoint : ENDPOINTS) {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(args[0] + endpoint))
+                    .header("Authorization", "Bearer " + args[1])
+                    .header("Accept", "application/json")
+                    .build(), HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException(endpoint + " returned " + response.statusCode());
+            }
+            // Re-encoded from the tree, so every format encodes the same content
+            Object body = json.readValue(response.body(), Object.class);
+
+            System.out.println(endpoint);
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectMapper mapper = format.getValue();
+                byte[] raw = mapper.writeValueAsBytes(body);
+                System.out.printf("  %-5s raw %7d B, gzip %6d B | encode %8.1f us, with gzip %8.1f us%n",
+                        format.getKey(), raw.length, gzip(raw).length,
+                        time(() -> mapper.writeValueAsBytes(body)),
+                        time(() -> gzip(mapper.writeValueAsBytes(body))));
+            }
+        }
+    }
+
+    // Microseconds per call after a warm-up
+    private static double time(Callable<Object> work) throws Exception {
+        for (int i = 0; i < 2000; i++) work.call();
+        int calls = 3000;
+        long begin = System.nanoTime();
+        for (int i = 0; i < calls; i++) work.call();
+        return (System.nanoTime() - begin) / 1e3 / calls;
+    }
+
+    private static byte[] gzip(byte[] raw) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(raw);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,112 @@
+package com.trick_manager.Trick_API.bench;
+
+import com.trick_manager.Trick_API.config.RateLimitProperties;
+import com.trick_manager.Trick_API.config.RateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time per rate limit decision with the policies from application.properties, at 1, 16 and 64 threads,
+ * for one hot client and for 10k clients. "lookup + acquire" is what RateLimitFilter does per request,
+ * "acquire only" takes the policy lookup out. Reported as wall time per decision divided over the threads,
+ * i.e. the CPU cost on a machine with fewer cores than threads.
+ * <p>
+ * With the configured rates nearly every decision is a rejection; a high rate override measures the
+ * allowed path, where the threads compete on the bucket's compare-and-set.
+ * <p>
+ * Arguments: [decisions per thread, default 1000000] [rate per second for every policy, default as configured]
+ */
+public class RateLimiterBenchmark {
+
+    private static final String PATH = "/api/goals/42";
+
+    public static void main(String[] args) throws Exception {
+        int decisions = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Double rate = args.length > 1 ? Double.valueOf(args[1]) : null;
+        RateLimiter limiter = limiter(rate);
+        RateLimiter.Policy policy = limiter.policyFor(PATH);
+
+        String[] clients = new String[10_000];
+        for (int i = 0; i < clients.length; i++) clients[i] = "user:bench" + i;
+
+        System.out.printf("%d CPUs, %,d decisions per thread, policy %s, rate %s%n",
+                Runtime.getRuntime().availableProcessors(), decisions, policy.getName(), rate == null ? "as configured" : rate);
+        for (boolean lookup : new boolean[]{true, false}) {
+            for (int threads : new int[]{1, 16, 64}) {
+                for (boolean hot : new boolean[]{true, false}) {
+                    long[] rejected = new long[1];
+                    double nanos = run(threads, decisions, rejected, () -> {
+                        RateLimiter.Policy p = lookup ? limiter.policyFor(PATH) : policy;
+                        String client = hot ? "user:alice" : clients[ThreadLocalRandom.current().nextInt(clients.length)];
+                        return limiter.tryAcquire(p, client) != 0;
+                    });
+                    System.out.printf("%-16s %2d threads, %-8s: %6.1f ns/decision, %4.1f%% rejected%n",
+                            lookup ? "lookup + acquire" : "acquire only", threads, hot ? "one key" : "10k keys",
+                            nanos, rejected[0] * 100.0 / ((long) threads * decisions));
+                }
+            }
+        }
+    }
+
+    private static RateLimiter limiter(Double rate) throws Exception {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        RateLimitProperties config = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("rate-limit", RateLimitProperties.class)
+                .orElseThrow(() -> new IllegalStateException("No rate-limit.* in application.properties"));
+        if (rate != null) config.getPolicies().forEach(policy -> policy.setRatePerSecond(rate));
+
+        RateLimiter limiter = new RateLimiter();
+        set(limiter, "properties", config);
+        set(limiter, "meterRegistry", new SimpleMeterRegistry());
+        Method init = RateLimiter.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(limiter);
+        return limiter;
+    }
+
+    // One warm-up round, then a measured one; returns nanoseconds per decision
+    private static double run(int threads, int decisions, long[] rejected, Callable<Boolean> decision) throws Exception {
+        double nanos = 0;
+        for (int round = 0; round < 2; round++) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CyclicBarrier start = new CyclicBarrier(threads + 1);
+            AtomicLong rejections = new AtomicLong();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long count = 0;
+                    for (int i = 0; i < decisions; i++) {
+                        if (decision.call()) count++;
+                    }
+                    rejections.addAndGet(count);
+                    return null;
+                }));
+            }
+            start.await();
+            long begin = System.nanoTime();
+            for (Future<?> future : futures) future.get();
+            nanos = (double) (System.nanoTime() - begin) / ((long) threads * decisions);
+            pool.shutdown();
+            rejected[0] = rejections.get();
+        }
+        return nanos;
+    }
+
+    private static void set(Object target, String field, Object value) throws Exception {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(target, value);
+    }
+}
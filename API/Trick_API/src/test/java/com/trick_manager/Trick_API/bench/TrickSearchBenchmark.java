@@ -0,0 +1,76 @@
+package com.trick_manager.Trick_API.bench;
+
+import com.trick_manager.Trick_API.entity.Category;
+import com.trick_manager.Trick_API.entity.Trick;
+import com.trick_manager.Trick_API.repository.TrickRepository;
+import com.trick_manager.Trick_API.service.TrickSearchIndex;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * TrickSearchIndex with synthetic trick names: bulk build time and time per search (limit 20) for queries
+ * from selective to broad. Names are two random words of a skate vocabulary plus a number, so prefixes
+ * and abbreviations match many entries the way real names do.
+ * <p>
+ * Arguments: [number of tricks, default 100000] [searches per query, default 1000]
+ */
+public class TrickSearchBenchmark {
+
+    private static final String[] WORDS = {"Backside", "Frontside", "Kickflip", "Heelflip", "Switch", "Nollie",
+            "Fakie", "360", "180", "Grind", "Slide", "Cab", "Half", "Ollie", "Shove"};
+
+    private static final String[] QUERIES = {"backside 180 42", "kickf sw 7", "bs 180", "kickf", "s"};
+
+    public static void main(String[] args) throws Exception {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+
+        Category category = new Category("bench");
+        category.setId(1L);
+        Random random = new Random(1);
+        List<Trick> tricks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Trick trick = new Trick(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                    + " " + id % 500, category);
+            trick.setId(id);
+            tricks.add(trick);
+        }
+
+        TrickSearchIndex index = new TrickSearchIndex();
+        set(index, "trickRepository", repository(tricks));
+        long begin = System.nanoTime();
+        index.rebuild();
+        System.out.printf("%,d tricks, bulk build %d ms%n", index.size(), (System.nanoTime() - begin) / 1_000_000);
+
+        for (String query : QUERIES) {
+            int matches = index.search(query, null, size).size();
+            double micros = 0;
+            // Warm-up round, then a measured one
+            for (int round = 0; round < 2; round++) {
+                begin = System.nanoTime();
+                for (int i = 0; i < searches; i++) index.search(query, null, 20);
+                micros = (System.nanoTime() - begin) / 1e3 / searches;
+            }
+            System.out.printf("%-16s %,7d matches: %8.1f us/search%n", '"' + query + '"', matches, micros);
+        }
+    }
+
+    // Only findAll() is used by rebuild()
+    private static TrickRepository repository(List<Trick> tricks) {
+        return (TrickRepository) Proxy.newProxyInstance(TrickRepository.class.getClassLoader(),
+                new Class<?>[]{TrickRepository.class}, (proxy, method, methodArgs) -> {
+                    if (method.getName().equals("findAll") && method.getParameterCount() == 0) return tricks;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    private static void set(Object target, String field, Object value) throws Exception {
+        Field declared = target.getClass().getDeclaredField(field);
+        declared.setAccessible(true);
+        declared.set(target, value);
+    }
+}
@@ -0,0 +1,12 @@
+/**
+ * Benchmarks behind the numbers in the commit messages. They are plain main classes, not tests, so
+ * surefire does not run them. Build and run them against the compiled application classes:
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+ * java -cp target/classes:target/test-classes:$(cat target/classpath.txt) \
+ *     com.trick_manager.Trick_API.bench.RateLimiterBenchmark
+ * </pre>
+ * Benchmarks that need a database or a running instance take its URL as the first argument.
+ * Timings depend on the machine; compare runs on the same one.
+ */
+package com.trick_manager.Trick_API.bench;
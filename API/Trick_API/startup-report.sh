@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Cold start report for the Docker image: time until the health check is UP
+# and latency of the first API request.
+#   ./startup-report.sh <image> [extra docker run args, e.g. -e SPRING_DATASOURCE_URL=...]
+set -e
+
+IMAGE=${1:?usage: startup-report.sh <image> [docker run args]}
+shift
+PORT=${PORT:-18080}
+
+START=$(date +%s%N)
+CONTAINER=$(docker run -d -p "$PORT:8080" "$@" "$IMAGE")
+trap 'docker rm -f "$CONTAINER" > /dev/null' EXIT
+
+until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+    sleep 0.1
+done
+READY=$(date +%s%N)
+
+FIRST_REQUEST_MS=$(curl -s -o /dev/null -w '%{time_total}' "http://localhost:$PORT/api/categories")
+
+echo "Startup report for $IMAGE"
+echo "  ready after:        $(( (READY - START) / 1000000 )) ms"
+echo "  first request took: $FIRST_REQUEST_MS s"
+docker logs "$CONTAINER" 2>&1 | grep -E "Started TrickApiApplication|StartupTimingFilter" || true
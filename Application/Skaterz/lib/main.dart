@@ -48,6 +48,8 @@ class _MyAppState extends State<MyApp> {
   Future<void> _fetchUserData() async {
     try {
       final user = await _apiService.getCurrentUser();
+      // Online again: send what was queued while offline
+      _apiService.flushOfflineQueue();
       setState(() {
         _userData = user;
       });
@@ -1,5 +1,6 @@
 import 'dart:convert';
 import 'dart:async';
+import 'dart:math';
 import 'package:flutter/foundation.dart';
 import 'package:http/http.dart' as http;
 import 'package:flutter_secure_storage/flutter_secure_storage.dart';
@@ -26,6 +27,19 @@ class ApiService {
     await _storage.write(key: 'jwt_token', value: token);
   }
 
+  Future<void> saveRefreshToken(String token) async {
+    await _storage.write(key: 'refresh_token', value: token);
+  }
+
+  Future<String?> getRefreshToken() async {
+    try {
+      return await _storage.read(key: 'refresh_token');
+    } catch (e) {
+      debugPrint("Secure Storage Error: $e");
+      return null;
+    }
+  }
+
   Future<String?> getToken() async {
     try {
       return await _storage.read(key: 'jwt_token');
@@ -36,6 +50,18 @@ class ApiService {
   }
 
   Future<void> logout() async {
+    final refreshToken = await getRefreshToken();
+    if (refreshToken != null) {
+      // Revoke the session server-side, but never block the local logout on it
+      http.post(
+        Uri.parse('$baseUrl/users/logout'),
+        headers: {'Content-Type': 'application/json'},
+        body: jsonEncode({'refreshToken': refreshToken}),
+      ).timeout(const Duration(seconds: 15)).catchError((e) {
+        debugPrint("Logout Revoke Error: $e");
+        return http.Response('', 500);
+      });
+    }
     try {
       await _storage.delete(key: 'jwt_token');
       await _storage.deleteAll();
@@ -52,6 +78,43 @@ class ApiService {
     };
   }
 
+  // --- Session Refresh ---
+
+  Future<bool>? _refreshInFlight;
+
+  // Concurrent 401s share one refresh call, a rotated refresh token is only valid once
+  Future<bool> _refreshSession() {
+    return _refreshInFlight ??= _doRefresh().whenComplete(() => _refreshInFlight = null);
+  }
+
+  Future<bool> _doRefresh() async {
+    final refreshToken = await getRefreshToken();
+    if (refreshToken == null) return false;
+    try {
+      final response = await http.post(
+        Uri.parse('$baseUrl/users/refresh'),
+        headers: {'Content-Type': 'application/json'},
+        body: jsonEncode({'refreshToken': refreshToken}),
+      ).timeout(const Duration(seconds: 15));
+      if (response.statusCode != 200) return false;
+      final data = jsonDecode(response.body);
+      await saveToken(data['token']);
+      await saveRefreshToken(data['refreshToken']);
+      return true;
+    } catch (e) {
+      debugPrint("Session Refresh Error: $e");
+      return false;
+    }
+  }
+
+  Future<http.Response> _send(Future<http.Response> Function(Map<String, String> headers) request) async {
+    var response = await request(await _getHeaders());
+    if (response.statusCode == 401 && await _refreshSession()) {
+      response = await request(await _getHeaders());
+    }
+    return response;
+  }
+
   dynamic _handleResponse(http.Response response) {
     if (response.statusCode == 401) {
       logout();
@@ -86,12 +149,88 @@ class ApiService {
     return null;
   }
 
+  // --- Offline Queue ---
+  // Mutations that fail for lack of network are queued and replayed in order via /replay.
+  // The idempotency key makes retries of the same batch safe.
+
+  static const _queueKey = 'offline_mutations';
+  final _random = Random.secure();
+  Future<void>? _flushInFlight;
+
+  Future<dynamic> _mutate(
+    Map<String, dynamic> mutation,
+    Future<http.Response> Function(Map<String, String> headers) request,
+  ) async {
+    await flushOfflineQueue();
+    try {
+      return _handleResponse(await _send(request));
+    } on http.ClientException catch (e) {
+      debugPrint("Offline, queueing ${mutation['op']}: $e");
+    } on TimeoutException catch (e) {
+      debugPrint("Offline, queueing ${mutation['op']}: $e");
+    }
+    await _enqueue(mutation);
+    return null;
+  }
+
+  Future<List<dynamic>> _readQueue() async {
+    try {
+      final stored = await _storage.read(key: _queueKey);
+      if (stored != null) return jsonDecode(stored);
+    } catch (e) {
+      debugPrint("Queue Read Error: $e");
+    }
+    return [];
+  }
+
+  Future<void> _enqueue(Map<String, dynamic> mutation) async {
+    final queue = await _readQueue();
+    queue.add({
+      ...mutation,
+      'idempotencyKey': '${DateTime.now().microsecondsSinceEpoch.toRadixString(36)}-${_random.nextInt(0x7fffffff).toRadixString(36)}',
+      'clientTimestamp': DateTime.now().millisecondsSinceEpoch,
+    });
+    await _storage.write(key: _queueKey, value: jsonEncode(queue));
+  }
+
+  // Call on app start and whenever connectivity might be back
+  Future<void> flushOfflineQueue() {
+    return _flushInFlight ??= _doFlush().whenComplete(() => _flushInFlight = null);
+  }
+
+  Future<void> _doFlush() async {
+    final queue = await _readQueue();
+    if (queue.isEmpty) return;
+
+    final batch = queue.take(500).toList();
+    try {
+      final response = await _send((headers) => http.post(
+        Uri.parse('$baseUrl/replay'),
+        headers: headers,
+        body: jsonEncode({'mutations': batch}),
+      ).timeout(const Duration(seconds: 30)));
+      final data = _handleResponse(response);
+
+      // Every item got a result (applied, stale, duplicate or rejected), none needs another try
+      for (final result in data['results']) {
+        if (result['status'] == 'rejected') {
+          debugPrint("Replay rejected ${result['idempotencyKey']}: ${result['error']}");
+        }
+      }
+      final remaining = (await _readQueue()).skip(batch.length).toList();
+      await _storage.write(key: _queueKey, value: jsonEncode(remaining));
+    } catch (e) {
+      // Still offline or server error, the queue is kept and retried later
+      debugPrint("Replay Error: $e");
+    }
+  }
+
   // --- Wrapper für Requests mit Timeout ---
   Future<http.Response> _get(String path) async {
-    return await http.get(
+    return await _send((headers) => http.get(
       Uri.parse('$baseUrl$path'),
-      headers: await _getHeaders(),
-    ).timeout(const Duration(seconds: 15));
+      headers: headers,
+    ).timeout(const Duration(seconds: 15)));
   }
 
   // --- Auth Services ---
@@ -123,6 +262,9 @@ class ApiService {
     final data = _handleResponse(response);
     if (data != null && data['token'] != null) {
       await saveToken(data['token']);
+      if (data['refreshToken'] != null) {
+        await saveRefreshToken(data['refreshToken']);
+      }
     }
     return data;
   }
@@ -137,28 +279,28 @@ class ApiService {
   }
 
   Future<void> uploadProfileImage(String base64Image) async {
-    final response = await http.post(
+    final response = await _send((headers) => http.post(
       Uri.parse('$baseUrl/users/me/image'),
-      headers: await _getHeaders(),
+      headers: headers,
       body: jsonEncode({'image': base64Image}),
-    ).timeout(const Duration(seconds: 30));
+    ).timeout(const Duration(seconds: 30)));
     _handleResponse(response);
   }
 
   Future<void> updatePrivacy(bool isPublic) async {
-    final response = await http.put(
+    final response = await _send((headers) => http.put(
       Uri.parse('$baseUrl/users/me/privacy'),
-      headers: await _getHeaders(),
+      headers: headers,
       body: jsonEncode({'is_public': isPublic}),
-    ).timeout(const Duration(seconds: 15));
+    ).timeout(const Duration(seconds: 15)));
     _handleResponse(response);
   }
 
   Future<void> deleteAccount() async {
-    final response = await http.delete(
+    final response = await _send((headers) => http.delete(
       Uri.parse('$baseUrl/users/me'),
-      headers: await _getHeaders(),
-    ).timeout(const Duration(seconds: 15));
+      headers: headers,
+    ).timeout(const Duration(seconds: 15)));
     _handleResponse(response);
   }
 
@@ -208,22 +350,26 @@ class ApiService {
 
   Future<void> toggleWishlist(int trickId, bool isWishlisted) async {
     final endpoint = isWishlisted ? '/wishlist/remove' : '/wishlist/add';
-    final response = await http.post(
-      Uri.parse('$baseUrl$endpoint'),
-      headers: await _getHeaders(),
-      body: jsonEncode({'trick_id': trickId}),
-    ).timeout(const Duration(seconds: 15));
-    _handleResponse(response);
+    await _mutate(
+      {'op': isWishlisted ? 'wishlist.remove' : 'wishlist.add', 'trick_id': trickId},
+      (headers) => http.post(
+        Uri.parse('$baseUrl$endpoint'),
+        headers: headers,
+        body: jsonEncode({'trick_id': trickId}),
+      ).timeout(const Duration(seconds: 15)),
+    );
   }
 
   Future<void> toggleCompleted(int trickId, bool isCompleted) async {
     final endpoint = isCompleted ? '/completed/remove' : '/completed/add';
-    final response = await http.post(
-      Uri.parse('$baseUrl$endpoint'),
-      headers: await _getHeaders(),
-      body: jsonEncode({'trick_id': trickId}),
-    ).timeout(const Duration(seconds: 15));
-    _handleResponse(response);
+    await _mutate(
+      {'op': isCompleted ? 'completed.remove' : 'completed.add', 'trick_id': trickId},
+      (headers) => http.post(
+        Uri.parse('$baseUrl$endpoint'),
+        headers: headers,
+        body: jsonEncode({'trick_id': trickId}),
+      ).timeout(const Duration(seconds: 15)),
+    );
   }
 
   Future<List<dynamic>> getCategoryStats({int? userId}) async {
@@ -259,28 +405,32 @@ class ApiService {
   }
 
   Future<Map<String, dynamic>> addSessionGoal(Map<String, dynamic> goalData) async {
-    final response = await http.post(
+    final response = await _send((headers) => http.post(
       Uri.parse('$baseUrl/goals'),
-      headers: await _getHeaders(),
+      headers: headers,
       body: jsonEncode(goalData),
-    ).timeout(const Duration(seconds: 15));
+    ).timeout(const Duration(seconds: 15)));
     return _handleResponse(response);
   }
 
   Future<Map<String, dynamic>> updateSessionGoal(int id, Map<String, dynamic> goalData) async {
-    final response = await http.put(
-      Uri.parse('$baseUrl/goals/$id'),
-      headers: await _getHeaders(),
-      body: jsonEncode(goalData),
-    ).timeout(const Duration(seconds: 15));
-    return _handleResponse(response);
+    final data = await _mutate(
+      {'op': 'goal.update', 'goal': {...goalData, 'id': id}},
+      (headers) => http.put(
+        Uri.parse('$baseUrl/goals/$id'),
+        headers: headers,
+        body: jsonEncode(goalData),
+      ).timeout(const Duration(seconds: 15)),
+    );
+    // Queued while offline: the local state is what the server will end up with
+    return data ?? goalData;
   }
 
   Future<void> deleteSessionGoal(int id) async {
-    final response = await http.delete(
+    final response = await _send((headers) => http.delete(
       Uri.parse('$baseUrl/goals/$id'),
-      headers: await _getHeaders(),
-    ).timeout(const Duration(seconds: 15));
+      headers: headers,
+    ).timeout(const Duration(seconds: 15)));
     _handleResponse(response);
   }
 }